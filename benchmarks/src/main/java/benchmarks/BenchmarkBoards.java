@@ -0,0 +1,86 @@
+package benchmarks;
+
+import logic.Board;
+import logic.CellState;
+import logic.LineDirection;
+import logic.Point;
+import logic.TrackLine;
+
+/**
+ * Generates the boards of the benchmarks. Each board is a square with a ring
+ * shaped track along its border and a vertical start/finish line across the
+ * top part of the ring, so the whole ring is the track of the race.
+ *
+ * @author ite105705
+ */
+final class BenchmarkBoards {
+
+    /**
+     * Utility class, no instances.
+     */
+    private BenchmarkBoards() {
+    }
+
+    /**
+     * Returns the width of the ring of a board of the given size.
+     *
+     * @param size number of the columns and rows of the board
+     * @return width of the ring
+     */
+    static int ringWidth(int size) {
+        return Math.max(2, size / 20);
+    }
+
+    /**
+     * Creates a square board with a closed ring shaped track. The outermost
+     * cells stay gravel.
+     *
+     * @param size number of the columns and rows of the board
+     * @return the board
+     */
+    static Board createRing(int size) {
+        int width = ringWidth(size);
+        int lineX = size / 2;
+        CellState[][] cells = new CellState[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int distanceToBorder = Math.min(Math.min(x, y), Math.min(size - 1 - x, size - 1 - y));
+                if (distanceToBorder < 1 || distanceToBorder > width) {
+                    cells[y][x] = CellState.GRAVEL;
+                } else if (x == lineX && y <= width) {
+                    cells[y][x] = CellState.LINE;
+                } else {
+                    cells[y][x] = CellState.TRACK;
+                }
+            }
+        }
+
+        Board board = new Board(cells, LineDirection.LEFT_RIGHT);
+        TrackLine line = board.getStartAndFinishLine();
+        line.setStartPoint(new Point(lineX, 1));
+        line.setEndPoint(new Point(lineX, width));
+        line.setIsDrawn(true);
+
+        return board;
+    }
+
+    /**
+     * Returns the cell right behind the start/finish line of the ring.
+     *
+     * @param size number of the columns and rows of the board
+     * @return the cell where the track starts
+     */
+    static Point trackStart(int size) {
+        return new Point(size / 2 + 1, 1);
+    }
+
+    /**
+     * Returns the cell right in front of the start/finish line of the ring.
+     *
+     * @param size number of the columns and rows of the board
+     * @return the cell where the track ends
+     */
+    static Point trackEnd(int size) {
+        return new Point(size / 2 - 1, 1);
+    }
+}
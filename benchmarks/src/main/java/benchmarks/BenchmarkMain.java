@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark JAR. Runs the benchmarks with the usual JMH
+ * command line options and writes the results as JSON, so the results of
+ * different versions can be compared.
+ *
+ * @author ite105705
+ */
+public class BenchmarkMain {
+
+    /**
+     * File the results are written to, unless another one is given with -rff.
+     */
+    private static final String DEFAULT_RESULT_FILE = "benchmarks/target/jmh-results.json";
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH command line options
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException            if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+        if (commandLineOptions.getResult().hasValue()) {
+            builder.result(commandLineOptions.getResult().get());
+        } else {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+        if (commandLineOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(commandLineOptions.getResultFormat().get());
+        } else {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
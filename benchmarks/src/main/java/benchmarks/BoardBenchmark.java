@@ -0,0 +1,151 @@
+package benchmarks;
+
+import logic.Board;
+import logic.Cell;
+import logic.Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations of the board which are used while a track is
+ * edited: the validity check of the track, the neighbours of a cell and
+ * adding and removing rows and columns.
+ *
+ * @author ite105705
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g", "-Xss64m"})
+public class BoardBenchmark {
+
+    /**
+     * Number of the columns and rows of the board.
+     */
+    @Param({"20", "200", "1000", "4000"})
+    private int size;
+
+    /**
+     * The board of the benchmark.
+     */
+    private Board board;
+
+    /**
+     * A track cell at the bottom of the ring, far away from the line.
+     */
+    private Point editedCell;
+
+    /**
+     * A cell in the middle of the track.
+     */
+    private Point trackCell;
+
+    /**
+     * Creates the board.
+     */
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkBoards.createRing(this.size);
+        this.editedCell = new Point(this.size / 2, this.size - 2);
+        this.trackCell = new Point(this.size / 2, BenchmarkBoards.ringWidth(this.size) / 2 + 1);
+    }
+
+    /**
+     * Checks the validity of the unchanged track.
+     *
+     * @return whether the track is valid
+     */
+    @Benchmark
+    public boolean hasValidPath() {
+        return this.board.hasValidPath();
+    }
+
+    /**
+     * Paints a track cell with gravel and back, like a user does while
+     * editing, and checks the validity of the track afterwards.
+     *
+     * @return whether the track is valid
+     */
+    @Benchmark
+    public boolean hasValidPathAfterEdit() {
+        this.board.turnIntoGravel(this.editedCell);
+        this.board.turnIntoTrack(this.editedCell);
+
+        return this.board.hasValidPath();
+    }
+
+    /**
+     * Determines the neighbours of a track cell.
+     *
+     * @return the neighbours
+     */
+    @Benchmark
+    public Cell[] getNeighbours() {
+        return this.board.getNeighbours(this.trackCell);
+    }
+
+    /**
+     * Adds a row on top of the board and removes it again.
+     *
+     * @return the board
+     */
+    @Benchmark
+    public Board addAndRemoveRowTop() {
+        this.board.addRowTop();
+        this.board.removeRowTop();
+
+        return this.board;
+    }
+
+    /**
+     * Adds a row to the bottom of the board and removes it again.
+     *
+     * @return the board
+     */
+    @Benchmark
+    public Board addAndRemoveRowBottom() {
+        this.board.addRowBottom();
+        this.board.removeRowBottom();
+
+        return this.board;
+    }
+
+    /**
+     * Adds a column to the left of the board and removes it again.
+     *
+     * @return the board
+     */
+    @Benchmark
+    public Board addAndRemoveColLeft() {
+        this.board.addColLeft();
+        this.board.removeColLeft();
+
+        return this.board;
+    }
+
+    /**
+     * Adds a column to the right of the board and removes it again.
+     *
+     * @return the board
+     */
+    @Benchmark
+    public Board addAndRemoveColRight() {
+        this.board.addColRight();
+        this.board.removeColRight();
+
+        return this.board;
+    }
+}
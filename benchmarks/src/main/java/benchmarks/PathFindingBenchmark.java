@@ -0,0 +1,88 @@
+package benchmarks;
+
+import logic.Board;
+import logic.list.PathList;
+import logic.pathfinding.Dijkstra;
+import logic.pathfinding.FloodFill;
+import logic.pathfinding.HeapDijkstra;
+import logic.pathfinding.PathFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a path search around the whole track of a ring shaped board, from
+ * the cell behind the start/finish line to the cell in front of it.
+ *
+ * @author ite105705
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g", "-Xss64m"})
+public class PathFindingBenchmark {
+
+    /**
+     * Number of the columns and rows of the board.
+     */
+    @Param({"20", "200", "1000", "4000"})
+    private int size;
+
+    /**
+     * Name of the path finder to measure.
+     */
+    @Param({"Dijkstra", "FloodFill", "HeapDijkstra"})
+    private String finder;
+
+    /**
+     * The board of the benchmark.
+     */
+    private Board board;
+
+    /**
+     * The measured path finder.
+     */
+    private PathFinder pathFinder;
+
+    /**
+     * Creates the board and the path finder.
+     */
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkBoards.createRing(this.size);
+        // Creates the cells once, so only the search is measured
+        this.board.getCells();
+        this.pathFinder = switch (this.finder) {
+            case "Dijkstra" -> new Dijkstra();
+            case "FloodFill" -> new FloodFill();
+            case "HeapDijkstra" -> new HeapDijkstra();
+            default -> throw new IllegalArgumentException("Unknown path finder " + this.finder);
+        };
+    }
+
+    /**
+     * Searches the path around the whole track.
+     *
+     * @return the found path
+     */
+    @Benchmark
+    public PathList getPathFromPosToPos() {
+        return this.pathFinder.getPathFromPosToPos(
+                BenchmarkBoards.trackStart(this.size),
+                BenchmarkBoards.trackEnd(this.size),
+                this.board
+        );
+    }
+}
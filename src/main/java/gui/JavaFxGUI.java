@@ -136,6 +136,10 @@ public class JavaFxGUI implements GUIConnector {
 
     public static final String GAME_STARTED_TITLE = "Game is started";
 
+    public static final String TRACK_CLOSED_MESSAGE = "Track is closed.";
+
+    public static final String TRACK_NOT_CLOSED_MESSAGE = "Track is not closed yet.";
+
     public static final String BOARD_INVALID_MESSAGE = "Start/finish line is not available or the board does not contain a path.";
 
     public static final String BOARD_CARS_PLACEMENT_MESSAGE = "Placement of the cars is started";
@@ -170,6 +174,10 @@ public class JavaFxGUI implements GUIConnector {
 
     public static final String INVALID_SAVE_STATE_TITLE = "Cannot be saved";
 
+    public static final String SAVE_FAILED_MESSAGE = "The file could not be written.";
+
+    public static final String JOURNAL_FAILED_MESSAGE = "The journal could not be written, the following turns are not journaled.";
+
     public static final String SETTING_UNCHANGEABLE_TITLE = "Settings change";
 
     public static final String GAME_NOT_ENDED_TITLE = "Game has not ended yet";
@@ -269,13 +277,24 @@ public class JavaFxGUI implements GUIConnector {
 
     @Override
     public void turnIntoLine(Point point, LineDirection direction) {
-        this.imageViews[point.x()][point.y()].setImage(IMG_ARROW);
+        this.turnIntoLine(this.imageViews[point.x()][point.y()], direction);
+    }
+
+    /**
+     * Shows the arrow of a line cell on the given image view, rotated into
+     * the given direction.
+     *
+     * @param imageView the image view of the cell
+     * @param direction the direction of the line
+     */
+    private void turnIntoLine(ImageView imageView, LineDirection direction) {
+        imageView.setImage(IMG_ARROW);
 
         switch (direction) {
-            case RIGHT_LEFT -> this.imageViews[point.x()][point.y()].setRotate(180);
-            case LEFT_RIGHT -> this.imageViews[point.x()][point.y()].setRotate(0);
-            case DOWN_TOP -> this.imageViews[point.x()][point.y()].setRotate(270);
-            case TOP_DOWN -> this.imageViews[point.x()][point.y()].setRotate(90);
+            case RIGHT_LEFT -> imageView.setRotate(180);
+            case LEFT_RIGHT -> imageView.setRotate(0);
+            case DOWN_TOP -> imageView.setRotate(270);
+            case TOP_DOWN -> imageView.setRotate(90);
         }
     }
 
@@ -433,7 +452,7 @@ public class JavaFxGUI implements GUIConnector {
     @Override
     public void showFinishingPosition(Player player, Point[] points) {
         for (Point point : points) {
-            this.beforeMarkingPoints.put(point, this.imageViews[point.x()][point.y()].getImage());
+            this.beforeMarkingPoints.putIfAbsent(point, this.imageViews[point.x()][point.y()].getImage());
             Image currentImage = this.imageViews[point.x()][point.y()].getImage();
 
             if (point instanceof PrincipalPoint) {
@@ -584,4 +603,31 @@ public class JavaFxGUI implements GUIConnector {
             case LINE -> this.turnIntoLine(point, lineDirection);
         }
     }
+
+    @Override
+    public void updateTrackClosedLabel(boolean isClosed) {
+        if (this.lblPlayersInfo != null) {
+            this.lblPlayersInfo.setText(isClosed ? TRACK_CLOSED_MESSAGE : TRACK_NOT_CLOSED_MESSAGE);
+        }
+    }
+
+    @Override
+    public void drawBoard(Board board) {
+        if (this.imageViews.length != board.getColCount()
+            || (this.imageViews.length > 0 && this.imageViews[0].length != board.getRowCount())) {
+            throw new IllegalArgumentException("The grid does not have the size of the board");
+        }
+
+        LineDirection direction = board.getStartAndFinishLine().getDirection();
+        for (int x = 0; x < board.getColCount(); x++) {
+            for (int y = 0; y < board.getRowCount(); y++) {
+                ImageView imageView = this.imageViews[x][y];
+                switch (board.getState(x, y)) {
+                    case GRAVEL -> imageView.setImage(IMG_GRAVEL);
+                    case TRACK, CAR -> imageView.setImage(IMG_TRACK);
+                    case LINE -> this.turnIntoLine(imageView, direction);
+                }
+            }
+        }
+    }
 }
@@ -135,7 +135,7 @@ public class ReplayController implements Initializable {
         List<PathTransition> pathTransitionList = new ArrayList<>();
         if (this.players != null) {
             for (Player currentPlayer : this.players) {
-                Point currentPosition = currentPlayer.getMoves().get(0);
+                Point currentPosition = currentPlayer.getMoves().getFirst();
                 this.gui.setPlayerOnPosition(currentPosition, currentPlayer.getIndex());
 
                 Node node = this.gridImageView[currentPosition.x()][currentPosition.y()];
@@ -148,8 +148,7 @@ public class ReplayController implements Initializable {
 
                 double currentXLine = cellWidth / 2;
                 double currentYLine = cellHeight / 2;
-                for (int j = 0; j < currentPlayer.getMoves().size(); j++) {
-                    Point currentMovementPosition = currentPlayer.getMoves().get(j);
+                for (Point currentMovementPosition : currentPlayer.getMoves()) {
                     int xMovement = currentMovementPosition.x() - currentPosition.x();
                     int yMovement = currentMovementPosition.y() - currentPosition.y();
 
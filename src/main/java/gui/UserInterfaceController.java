@@ -1,14 +1,12 @@
 package gui;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
 import javafx.scene.image.ImageView;
@@ -21,12 +19,8 @@ import logic.*;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.ResourceBundle;
 
 // TODO: If the game starts only with AI player, cells would have problem
@@ -70,6 +64,13 @@ public class UserInterfaceController implements Initializable {
     @FXML
     private MenuItem mnItmReplayGame;
 
+    /**
+     * The menu item which selects whether races are saved as compact JSON
+     * without any whitespace.
+     */
+    @FXML
+    private CheckMenuItem mnItmCompactSave;
+
     /**
      * Holds the reference to the current instance of the game.
      */
@@ -101,6 +102,18 @@ public class UserInterfaceController implements Initializable {
      */
     private Point clickedPosition;
 
+    /**
+     * Journal of the turns of the current race, next to the file the race
+     * was loaded from or saved to, or null.
+     */
+    private MoveJournal journal;
+
+    /**
+     * Extension of the journal of a saved race, it is appended to the name
+     * of the saved file.
+     */
+    private static final String JOURNAL_EXTENSION = ".journal";
+
     /**
      * Setter method of the mainStage field.
      *
@@ -184,6 +197,7 @@ public class UserInterfaceController implements Initializable {
      * instance of the RaceTrack class.
      */
     private void editTrack() {
+        this.closeJournal();
         this.gridImageView = this.initImages(this.grdPnTrackField);
         this.gui = new JavaFxGUI(this.grdPnTrackField, this.gridImageView, this.lblPlayersInfo, this.mnItmReplayGame);
         this.raceTrack = new RaceTrack(
@@ -193,12 +207,93 @@ public class UserInterfaceController implements Initializable {
         );
     }
 
+    /**
+     * Changes the number of the columns and rows of the grid pane and
+     * creates new image views and a new gui for it, for example for a
+     * loaded board of another size.
+     *
+     * @param colCount the new number of the columns
+     * @param rowCount the new number of the rows
+     */
+    private void resizeGrid(int colCount, int rowCount) {
+        ImageViewHelper imageViewHelper = new ImageViewHelper(this.grdPnTrackField, this.gridImageView);
+        int currentColCount = this.grdPnTrackField.getColumnConstraints().size();
+        int currentRowCount = this.grdPnTrackField.getRowConstraints().size();
+        imageViewHelper.addColumnConstraints(Math.max(0, colCount - currentColCount));
+        for (int x = currentColCount - 1; x >= colCount; x--) {
+            imageViewHelper.removeColumnConstraints(x);
+        }
+        imageViewHelper.addRowConstraints(Math.max(0, rowCount - currentRowCount));
+        for (int y = currentRowCount - 1; y >= rowCount; y--) {
+            imageViewHelper.removeRowConstraints(y);
+        }
+
+        this.gridImageView = this.initImages(this.grdPnTrackField);
+        this.gui = new JavaFxGUI(this.grdPnTrackField, this.gridImageView, this.lblPlayersInfo, this.mnItmReplayGame);
+    }
+
+    /**
+     * Resumes the loaded race and recovers the turns after its save from the
+     * journal at the given path. The journal is only replaced once the race
+     * is recovered, so a crash during the recovery keeps all of its records.
+     *
+     * @param path path of the journal
+     * @throws IOException if the journal cannot be read
+     */
+    private void recoverFromJournal(Path path) throws IOException {
+        MoveLog journaled = MoveJournal.read(path);
+        if (journaled.size() == 0) {
+            this.raceTrack.resumeGame();
+        } else {
+            this.raceTrack.recover(journaled);
+        }
+
+        try {
+            this.replaceJournal(path, 0);
+        } catch (IOException e) {
+            this.gui.showMessage(JavaFxGUI.INVALID_SAVE_STATE_TITLE, JavaFxGUI.JOURNAL_FAILED_MESSAGE);
+        }
+    }
+
+    /**
+     * Replaces the journal at the given path by one with the turns of the
+     * current race from the given index on, and appends the following turns
+     * to it.
+     *
+     * @param path path of the journal
+     * @param from index of the first turn of the log of the race to write
+     * @throws IOException if the journal cannot be written
+     */
+    private void replaceJournal(Path path, int from) throws IOException {
+        this.closeJournal();
+        this.journal = MoveJournal.replace(path, this.raceTrack.getMoveLog(), from,
+                                           MoveJournal.DEFAULT_SYNC_INTERVAL);
+        this.raceTrack.setJournal(this.journal);
+    }
+
+    /**
+     * Closes the journal of the current race, if it has one. If its last
+     * turns cannot be written, the user is told.
+     */
+    private void closeJournal() {
+        if (this.journal != null) {
+            this.raceTrack.setJournal(null);
+            try {
+                this.journal.close();
+            } catch (IOException e) {
+                this.gui.showMessage(JavaFxGUI.INVALID_SAVE_STATE_TITLE, JavaFxGUI.JOURNAL_FAILED_MESSAGE);
+            }
+            this.journal = null;
+        }
+    }
+
     /**
      * Starts the game and user cannot edit the track anymore.
      * Sets the cars of the players on the track and starts the
      * game loop.
      */
     public void startGame(Player[] players) {
+        this.closeJournal();
         this.raceTrack = new RaceTrack(this.gui, this.raceTrack.getBoard(), players);
         this.raceTrack.startGame();
     }
@@ -250,6 +345,7 @@ public class UserInterfaceController implements Initializable {
                             this.gui.removeLine(this.raceTrack.getBoard().getStartAndFinishLine());
                             this.raceTrack.getBoard().rotateLine(point);
                             this.gui.drawLine(this.raceTrack.getBoard().getStartAndFinishLine());
+                            this.raceTrack.updateTrackClosedIndicator();
                         } else if (this.raceTrack.getBoard().getStartAndFinishLine().isDrawn()) {
                             this.gui.turnLineIntoTrack(this.raceTrack.getBoard().getStartAndFinishLine());
                             this.raceTrack.getBoard().turnLineIntoTrack();
@@ -355,79 +451,31 @@ public class UserInterfaceController implements Initializable {
         if (!this.raceTrack.isGameStarted()) {
             FileChooser fileChooser = new FileChooser();
             fileChooser.setTitle("Load");
-            fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Json Files", "*.json"));
+            fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Json Files", "*.json"),
+                                                  new FileChooser.ExtensionFilter("Track Files", "*" + TrackFile.EXTENSION));
             File file = fileChooser.showOpenDialog(this.mainStage);
 
             if (file != null) {
                 try {
-                    String content = Files.readString(Path.of(file.getPath()));
-                    JsonObject jsonObject = JsonParser.parseString(content).getAsJsonObject();
-
-                    JsonElement line = jsonObject.get("direction");
-                    LineDirection lineDirection = TrackLine.toLineDirection(line.toString());
-
-                    JsonArray track = jsonObject.getAsJsonArray("track");
-                    CellState[][] cells = new CellState[track.size()][track.get(0).getAsJsonArray().size()];
-                    Point lineStartPoint = null, lineEndPoint = null;
-                    for (int row = 0; row < track.size(); row++) {
-                        for (int col = 0; col < track.get(row).getAsJsonArray().size(); col++) {
-                            cells[row][col] = Cell.toCellState(track.get(row).getAsJsonArray().get(col).toString());
-                            Point point = new Point(col, row);
-                            this.gui.turnIntoState(new Point(col, row), cells[row][col], lineDirection);
-
-                            if (cells[row][col] == CellState.LINE && lineStartPoint == null) {
-                                lineStartPoint = point;
-                            }
-                            if (cells[row][col] == CellState.LINE) {
-                                lineEndPoint = point;
-                            }
-                        }
-                    }
-
-                    Board board = new Board(cells, lineDirection);
-                    if (lineStartPoint != null) {
-                        TrackLine trackLine = new TrackLine(lineStartPoint, lineEndPoint, lineDirection);
-                        board.setStartAndFinishLine(trackLine);
-                        board.getStartAndFinishLine().setIsDrawn(true);
-                    }
-
-                    JsonArray players = jsonObject.getAsJsonArray("player");
-                    List<Player> activePlayers = new ArrayList<>();
-                    for (int i = 0; i < players.size(); i++) {
-                        JsonObject currentPlayer = players.get(i).getAsJsonObject();
-                        boolean isActive = currentPlayer.get("active").getAsBoolean();
-                        boolean isAI = currentPlayer.get("ai").getAsBoolean();
-
-                        if (isActive) {
-                            Player newPlayer = new Player(currentPlayer.get("name").getAsString(), Player.toPlayerStatus(true, isAI), i);
-                            JsonArray currentPosition = currentPlayer.get("current").getAsJsonArray();
-                            newPlayer.setPosition(new Point(currentPosition.get(0).getAsInt(), currentPosition.get(1).getAsInt()));
-
-                            JsonArray lastPosition = currentPlayer.get("last").getAsJsonArray();
-                            newPlayer.setLastPosition(new Point(lastPosition.get(0).getAsInt(), lastPosition.get(1).getAsInt()));
-
-                            newPlayer.setCrossedLine(currentPlayer.get("lap").getAsInt());
-
-                            activePlayers.add(newPlayer);
+                    LoadedRace race = TrackLoader.load(file.toPath());
+                    Board board = race.getBoard();
+                    this.resizeGrid(board.getColCount(), board.getRowCount());
+                    this.gui.drawBoard(board);
+
+                    Player[] players = race.getPlayers();
+                    for (int i = 0; i < players.length; i++) {
+                        if (players[i].getPosition() != null) {
+                            this.gui.setPlayerOnPosition(players[i].getPosition(), i);
                         }
                     }
 
-                    Player[] gamePlayers;
-                    if (!activePlayers.isEmpty()) {
-                        gamePlayers = new Player[activePlayers.size()];
-                        for (int i = 0; i < activePlayers.size(); i++) {
-                            gamePlayers[i] = activePlayers.get(i);
-                            this.raceTrack.setCurrentPlayerIndex(i);
-                            this.raceTrack.setPlayerPosition(gamePlayers[i].getPosition());
-                        }
+                    this.closeJournal();
+                    this.raceTrack = race.createRaceTrack(this.gui);
+                    if (file.getName().endsWith(TrackFile.EXTENSION)) {
+                        this.raceTrack.resumeGame();
                     } else {
-                        gamePlayers = new Player[1];
-                        gamePlayers[0] = new Player("", PlayerStatus.AI, 0);
+                        this.recoverFromJournal(Path.of(file.getPath() + JOURNAL_EXTENSION));
                     }
-
-                    this.raceTrack = new RaceTrack(this.gui, board, gamePlayers);
-                    this.raceTrack.setCurrentPlayerIndex(jsonObject.get("currentPlayer").getAsInt());
-                    this.raceTrack.startGame();
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
@@ -438,22 +486,49 @@ public class UserInterfaceController implements Initializable {
     @FXML
     private void onClickMnItmSaveCurrentTrack(ActionEvent actionEvent) {
         if (this.raceTrack.isPlacementEnded() || this.raceTrack.isGameStarted()) {
-            String game = this.raceTrack.save();
+            // The snapshots are taken here, so the race can go on while they are written
+            RaceWriter raceWriter = this.raceTrack.createWriter();
+            Board board = this.raceTrack.getBoard().snapshot();
 
             //Creating a File chooser
             FileChooser fileChooser = new FileChooser();
             fileChooser.setTitle("Save");
-            fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Json Files", "*.json"));
+            fileChooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("Json Files", "*.json"),
+                                                  new FileChooser.ExtensionFilter("Track Files", "*" + TrackFile.EXTENSION));
             File file = fileChooser.showSaveDialog(this.mainStage);
 
             if (file != null) {
-                try {
-                    PrintWriter writer;
-                    writer = new PrintWriter(file);
-                    writer.println(game);
-                    writer.close();
-                } catch (IOException ignored) {
-                }
+                boolean isTrackFile = file.getName().endsWith(TrackFile.EXTENSION);
+                boolean compact = this.mnItmCompactSave.isSelected();
+                Task<Void> saveTask = new Task<>() {
+                    @Override
+                    protected Void call() throws IOException {
+                        if (isTrackFile) {
+                            TrackFile.write(board, file.toPath());
+                        } else {
+                            raceWriter.write(file.toPath(), compact);
+                        }
+                        return null;
+                    }
+                };
+                RaceTrack savedRace = this.raceTrack;
+                saveTask.setOnSucceeded(event -> {
+                    // The saved race holds the turns up to the snapshot, the journal holds the following ones
+                    if (!isTrackFile && savedRace == this.raceTrack) {
+                        try {
+                            this.replaceJournal(Path.of(file.getPath() + JOURNAL_EXTENSION),
+                                                raceWriter.getTurnCount());
+                        } catch (IOException e) {
+                            this.gui.showMessage(JavaFxGUI.INVALID_SAVE_STATE_TITLE, JavaFxGUI.SAVE_FAILED_MESSAGE);
+                        }
+                    }
+                });
+                saveTask.setOnFailed(event -> this.gui.showMessage(JavaFxGUI.INVALID_SAVE_STATE_TITLE,
+                                                                   JavaFxGUI.SAVE_FAILED_MESSAGE));
+
+                Thread saveThread = new Thread(saveTask, "save");
+                saveThread.setDaemon(true);
+                saveThread.start();
             }
         } else {
             this.gui.showMessage(JavaFxGUI.INVALID_SAVE_STATE_TITLE, JavaFxGUI.INVALID_SAVE_STATE_MESSAGE);
@@ -1,20 +1,82 @@
 package logic;
 
+import logic.list.PathArray;
 import logic.list.PathList;
-import logic.pathfinding.Dijkstra;
+import logic.pathfinding.HeapDijkstra;
 import logic.pathfinding.PathFinder;
 
+import java.util.Arrays;
+
 /**
- * Logic of the board of the game
+ * Logic of the board of the game. The states of the cells are kept in one
+ * byte array per row (one byte per {@link CellState}), the {@link Cell}
+ * objects of {@link #getCells()} are only created on demand. A
+ * {@link #snapshot()} shares all the rows with the board, each of the two
+ * boards copies a row only before it writes into it for the first time. The
+ * cars are not stored in the rows, they are kept in an {@link OccupancyIndex}
+ * so moving them never changes the terrain. The caches which are created on
+ * demand are guarded by the board itself, so path searches can read the board
+ * from several threads.
  *
  * @author ite105705
  */
 public class Board {
 
     /**
-     * Cells of the board. It has to be a rectangle.
+     * All the cell states, indexed by their ordinal which is also the value
+     * stored in the rows.
+     */
+    private static final CellState[] CELL_STATES = CellState.values();
+
+    /**
+     * Byte value of a gravel cell. It has to be zero, so a new array is
+     * completely gravel.
      */
-    private Cell[][] cells;
+    private static final byte GRAVEL = (byte) CellState.GRAVEL.ordinal();
+
+    /**
+     * Byte value of a track cell.
+     */
+    private static final byte TRACK = (byte) CellState.TRACK.ordinal();
+
+    /**
+     * Byte value of a line cell.
+     */
+    private static final byte LINE = (byte) CellState.LINE.ordinal();
+
+    /**
+     * States of the cells of the board row by row, the state of the cell
+     * (x, y) is at rows[y][x]. All the rows have the length colCount.
+     */
+    private byte[][] rows;
+
+    /**
+     * Whether the board may write into each of its rows. A row which is
+     * shared with a snapshot is copied before the first write.
+     */
+    private boolean[] ownsRow;
+
+    /**
+     * Whether the board owns the arrays of the rows and of the owned flags.
+     * They are shared with a snapshot until the first write.
+     */
+    private boolean ownsRowTable;
+
+    /**
+     * Number of the columns of the board.
+     */
+    private int colCount;
+
+    /**
+     * Number of the rows of the board.
+     */
+    private int rowCount;
+
+    /**
+     * Compatibility view of the states as cells, it is created on the first
+     * call of {@link #getCells()} and kept up to date afterwards.
+     */
+    private Cell[][] cellView;
 
     /**
      * Represents the starting/ending line of the game.
@@ -29,12 +91,42 @@ public class Board {
     /**
      * PathFinder class which find the path on the board.
      */
-    private final static PathFinder pathFinder = new Dijkstra();
+    private final static PathFinder pathFinder = new HeapDijkstra();
+
+    /**
+     * Represents the track of the game as a path with indexed access.
+     */
+    private PathArray track;
+
+    /**
+     * Distance of the cells which cannot reach the start/finish line.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * Number of the neighbouring steps each cell needs to the start/finish
+     * line, indexed by y * colCount + x. It is computed on demand and dropped
+     * whenever the layout of the board changes.
+     */
+    private int[] distancesToFinish;
+
+    /**
+     * Connected components of the track cells, created on the first check
+     * whether the track is closed and updated on every edit afterwards.
+     */
+    private TrackConnectivity connectivity;
+
+    /**
+     * One bit per cell which is set for the gravel cells, indexed by
+     * y * colCount + x. It is created on the first check of a segment and
+     * updated on every edit afterwards.
+     */
+    private volatile long[] gravelBits;
 
     /**
-     * Represents the track of the game as a path list.
+     * Index of the player whose car is on each occupied cell.
      */
-    private PathList track;
+    private OccupancyIndex cars = new OccupancyIndex();
 
     /**
      * Constructor used for testing, gets given a template for a board (see also
@@ -45,7 +137,7 @@ public class Board {
      */
     public Board(CellState[][] initBoard, LineDirection lineDirection) {
         this.trackLine = new TrackLine(lineDirection);
-        this.cells = createBoard(initBoard);
+        this.createBoard(initBoard);
     }
 
     /**
@@ -56,9 +148,56 @@ public class Board {
      * @param rowCount the given row count
      */
     public Board(int colCount, int rowCount) {
-        this.cells = new Cell[colCount][rowCount];
+        this.createRows(colCount, rowCount);
         this.trackLine = new TrackLine();
-        this.initCells();
+    }
+
+    /**
+     * Creates a board which takes over the given rows of cell states, for
+     * the loaders which read the cells directly into the storage of the
+     * board. The values of the rows are the ordinals of the states.
+     *
+     * @param rows          states of the cells row by row, all the rows
+     *                      have the same length and only contain gravel,
+     *                      track and line cells
+     * @param lineDirection direction of the start/finish line
+     */
+    Board(byte[][] rows, LineDirection lineDirection) {
+        this.colCount = rows.length == 0 ? 0 : rows[0].length;
+        this.rowCount = rows.length;
+        this.rows = rows;
+        this.ownsRow = new boolean[this.rowCount];
+        Arrays.fill(this.ownsRow, true);
+        this.ownsRowTable = true;
+        this.trackLine = new TrackLine(lineDirection);
+    }
+
+    /**
+     * Creates a copy of the given board with the same cells, the same
+     * start/finish line and the same cars, for example to run a race on it
+     * without changing the given board. The cells are copied in constant
+     * time, because the rows are shared until one of the boards writes into
+     * them. Only the distances to the start/finish line are shared from the
+     * caches, the copy builds the other ones on demand.
+     *
+     * @param board the board to copy
+     */
+    public Board(Board board) {
+        synchronized (board) {
+            this.colCount = board.colCount;
+            this.rowCount = board.rowCount;
+            this.rows = board.rows;
+            this.ownsRow = board.ownsRow;
+            this.ownsRowTable = false;
+            board.ownsRowTable = false;
+            // The distances are never changed, only replaced
+            this.distancesToFinish = board.distancesToFinish;
+            this.cars = new OccupancyIndex(board.cars);
+        }
+
+        TrackLine line = board.trackLine;
+        this.trackLine = new TrackLine(line.getStartPoint(), line.getEndPoint(), line.getDirection());
+        this.trackLine.setIsDrawn(line.isDrawn());
     }
 
     /**
@@ -72,85 +211,141 @@ public class Board {
 
         //split in lines, determine size of cell-array
         String[] lines = cells.split("\\r?\\n");
-        int rowCount = lines.length;
-        int colCount = lines[0].split(" ").length;
-        this.cells = new Cell[colCount][rowCount];
+        this.createRows(lines[0].split(" ").length, lines.length);
 
         //walk the lines
-        for (int row = 0; row < rowCount; row++) {
+        for (int row = 0; row < this.rowCount; row++) {
             String[] singleCells = lines[row].split(" ");
 
             //each line must have the same count of columns
-            if (colCount != singleCells.length) throw new AssertionError();
+            if (this.colCount != singleCells.length) throw new AssertionError();
 
             //walk the columns of each line
-            for (int col = 0; col < colCount; col++) {
+            for (int col = 0; col < this.colCount; col++) {
                 if (singleCells[col].startsWith("0")) {
-                    this.cells[col][row] = new Cell(new Point(col, row), CellState.GRAVEL);
+                    this.rows[row][col] = GRAVEL;
                 } else if (singleCells[col].startsWith("1")) {
-                    this.cells[col][row] = new Cell(new Point(col, row), CellState.TRACK);
+                    this.rows[row][col] = TRACK;
                 } else if (singleCells[col].startsWith("2")) {
-                    this.cells[col][row] = new Cell(new Point(col, row), CellState.LINE);
+                    this.rows[row][col] = LINE;
                 }
             }
         }
     }
 
     /**
-     * Creates a board with given cell types.
+     * Fills the board with given cell types. The template is given row by
+     * row, so the type of the cell (x, y) is boardCells[y][x]. Every type
+     * other than gravel and track is stored as a line cell.
      *
      * @param boardCells array of cell types for the new board; if the array is
      *                   empty or non-existent an IllegalArgumentException is
      *                   thrown
-     * @return newly created board
      */
-    private Cell[][] createBoard(CellState[][] boardCells) {
+    private void createBoard(CellState[][] boardCells) {
         if (boardCells == null || boardCells.length == 0) {
             throw new IllegalArgumentException("Array is empty or non-existent!");
         }
 
-        Cell[][] newBoard = new Cell[boardCells.length][boardCells[0].length];
-        for (int i = 0; i < boardCells.length; i++) {
-            for (int j = 0; j < boardCells[0].length; j++) {
-                Board.setFieldCellOnBoard(newBoard, new Point(i, j), boardCells[j][i]);
+        this.createRows(boardCells[0].length, boardCells.length);
+        for (int y = 0; y < this.rowCount; y++) {
+            for (int x = 0; x < this.colCount; x++) {
+                CellState type = boardCells[y][x];
+                if (type == CellState.GRAVEL) {
+                    this.rows[y][x] = GRAVEL;
+                } else if (type == CellState.TRACK) {
+                    this.rows[y][x] = TRACK;
+                } else {
+                    this.rows[y][x] = LINE;
+                }
             }
         }
+    }
 
-        return newBoard;
+    /**
+     * Creates the rows of a board of the given size, all the cells are
+     * gravel.
+     *
+     * @param colCount the given column count
+     * @param rowCount the given row count
+     */
+    private void createRows(int colCount, int rowCount) {
+        this.colCount = colCount;
+        this.rowCount = rowCount;
+        this.rows = new byte[rowCount][colCount];
+        this.ownsRow = new boolean[rowCount];
+        Arrays.fill(this.ownsRow, true);
+        this.ownsRowTable = true;
+    }
+
+    /**
+     * Creates a snapshot of the board in constant time. The snapshot and the
+     * board share all their rows, each of them copies a row before it writes
+     * into it for the first time. Changes of one of the boards are never
+     * visible in the other one.
+     *
+     * @return the snapshot
+     */
+    public Board snapshot() {
+        return new Board(this);
+    }
+
+    /**
+     * Getter method of cells of the board. The cells are a view of the
+     * states of the board, which is created on the first call and kept up
+     * to date by all the changes made through the board.
+     *
+     * @return cells of the board as a 2d array
+     */
+    public synchronized Cell[][] getCells() {
+        if (this.cellView == null) {
+            Cell[][] cells = new Cell[this.colCount][this.rowCount];
+            for (int x = 0; x < this.colCount; x++) {
+                for (int y = 0; y < this.rowCount; y++) {
+                    cells[x][y] = new Cell(new Point(x, y), CELL_STATES[this.rows[y][x]]);
+                }
+            }
+
+            this.cellView = cells;
+        }
+
+        return this.cellView;
     }
 
     /**
-     * Creates an instance of a cell depending on the given cell type and stores
-     * this instances on the given playing field at the given coordinates.
+     * Getter method of the track, it is searched on the first call after the
+     * layout of the board changed. The track starts with the start cell of
+     * the line.
      *
-     * @param board playing field in which the new cell should be stored
-     * @param point point coordinates of the position
-     * @param type  type of the cell
+     * @return the track or null, if the track is not closed
      */
-    private static void setFieldCellOnBoard(Cell[][] board, Point point, CellState type) {
-        Cell cell;
-        if (type == CellState.GRAVEL) {
-            cell = new Cell(point, CellState.GRAVEL);
-        } else if (type == CellState.TRACK) {
-            cell = new Cell(point, CellState.TRACK);
-        } else {
-            cell = new Cell(point, CellState.LINE);
+    public synchronized PathArray getTrack() {
+        if (this.track == null && this.isTrackClosed()) {
+            Point[] sides = this.findLineSides();
+            PathList pathList = pathFinder.getPathFromPosToPos(sides[0], sides[1], this);
+            pathList.insertAtFront(new Cell(this.trackLine.getStartPoint(), CellState.LINE));
+            this.track = PathArray.of(pathList);
         }
 
-        board[point.x()][point.y()] = cell;
+        return this.track;
     }
 
     /**
-     * Getter method of cells of the board.
+     * Getter method of the number of the columns of the board.
      *
-     * @return cells of the board as a 2d array
+     * @return number of the columns
      */
-    public Cell[][] getCells() {
-        return cells;
+    public int getColCount() {
+        return this.colCount;
     }
 
-    public PathList getTrack() {
-        return track;
+    /**
+     * Getter method of the number of the rows of the board.
+     *
+     * @return number of the rows
+     */
+    public int getRowCount() {
+        return this.rowCount;
     }
 
     /**
@@ -169,17 +364,203 @@ public class Board {
      */
     public void setStartAndFinishLine(TrackLine trackLine) {
         this.trackLine = trackLine;
+        this.layoutChanged();
+    }
+
+    /**
+     * Returns the index of the given coordinates in the flat arrays of the caches.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return index of the cell, y * colCount + x
+     */
+    private int toIndex(int x, int y) {
+        return y * this.colCount + x;
+    }
+
+    /**
+     * Returns the state of the cell at the given coordinates.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return state of the cell
+     */
+    public CellState getState(int x, int y) {
+        return CELL_STATES[this.rows[y][x]];
+    }
+
+    /**
+     * Changes the state of the cell at the given coordinates and the
+     * matching cell of the compatibility view if it is already created.
+     *
+     * @param x     x-axis value of the cell
+     * @param y     y-axis value of the cell
+     * @param state new state of the cell as byte value
+     */
+    private synchronized void setState(int x, int y, byte state) {
+        byte oldState = this.rows[y][x];
+        if (oldState == state) {
+            return;
+        }
+        if ((oldState == GRAVEL) != (state == GRAVEL) || (oldState == LINE) != (state == LINE)) {
+            this.layoutChanged();
+        }
+
+        this.ownRow(y);
+        this.rows[y][x] = state;
+        long[] gravel = this.gravelBits;
+        if (gravel != null && (oldState == GRAVEL) != (state == GRAVEL)) {
+            int index = this.toIndex(x, y);
+            gravel[index >>> 6] ^= 1L << index;
+        }
+        if (this.connectivity != null) {
+            if (state == TRACK) {
+                this.connectivity.addTrack(x, y);
+            } else if (oldState == TRACK) {
+                this.connectivity.removeTrack(x, y);
+            }
+        }
+        if (this.cellView != null) {
+            this.cellView[x][y].setCurrentState(CELL_STATES[state]);
+        }
+    }
+
+    /**
+     * Makes sure the board may write into the given row, by copying the
+     * arrays of the rows and the row itself if they are shared with a
+     * snapshot.
+     *
+     * @param y index of the row
+     */
+    private void ownRow(int y) {
+        if (!this.ownsRowTable) {
+            this.rows = this.rows.clone();
+            this.ownsRow = new boolean[this.rowCount];
+            this.ownsRowTable = true;
+        }
+        if (!this.ownsRow[y]) {
+            this.rows[y] = this.rows[y].clone();
+            this.ownsRow[y] = true;
+        }
+    }
+
+    /**
+     * Drops the compatibility view of the cells and all the other caches of
+     * the layout, it has to be called whenever the size of the board changes.
+     */
+    private synchronized void resetCaches() {
+        this.cellView = null;
+        this.connectivity = null;
+        this.gravelBits = null;
+        this.layoutChanged();
+    }
+
+    /**
+     * Drops the track and the distances to the start/finish line, it has to
+     * be called whenever the layout of the track changes.
+     */
+    private synchronized void layoutChanged() {
+        this.track = null;
+        this.distancesToFinish = null;
+    }
+
+    /**
+     * Returns the number of steps to the neighbouring cells a car at the
+     * given position needs to cross the start/finish line in its direction.
+     * Line cells have the distance zero, cells behind the line have to go
+     * around the whole track.
+     *
+     * @param point the given position
+     * @return the distance or {@link #UNREACHABLE} if the position is not on
+     * the board or the line cannot be reached from it
+     */
+    public int getDistanceToFinish(Point point) {
+        return this.getDistanceToFinish(point.x(), point.y());
     }
 
     /**
-     * Initializes all the track cells.
+     * Returns the number of steps to the neighbouring cells a car at the
+     * given coordinates needs to cross the start/finish line in its direction.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return the distance or {@link #UNREACHABLE} if the coordinates are not
+     * on the board or the line cannot be reached from them
      */
-    private void initCells() {
-        for (int row = 0; row < this.cells[0].length; row++) {
-            for (int col = 0; col < this.cells.length; col++) {
-                this.cells[col][row] = new Cell(new Point(col, row));
+    public synchronized int getDistanceToFinish(int x, int y) {
+        if (!this.areValidCoords(x, y)) {
+            return UNREACHABLE;
+        }
+
+        if (this.distancesToFinish == null) {
+            this.distancesToFinish = this.computeDistancesToFinish();
+        }
+
+        return this.distancesToFinish[this.toIndex(x, y)];
+    }
+
+    /**
+     * Computes the distances of all the cells to the start/finish line with
+     * a breadth first search which starts at all the line cells at once. The
+     * search leaves the line only against its direction, so the cells behind
+     * the line are reached around the track. Every cell other than gravel
+     * can be driven on.
+     *
+     * @return the distances indexed by y * colCount + x
+     */
+    private int[] computeDistancesToFinish() {
+        int[] distances = new int[this.colCount * this.rowCount];
+        Arrays.fill(distances, UNREACHABLE);
+        if (!this.trackLine.isDrawn()) {
+            return distances;
+        }
+
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        for (int y = 0; y < this.rowCount; y++) {
+            for (int x = 0; x < this.colCount; x++) {
+                if (this.rows[y][x] == LINE) {
+                    int index = this.toIndex(x, y);
+                    distances[index] = 0;
+                    queue[tail++] = index;
+                }
             }
         }
+
+        int lineDx = 0;
+        int lineDy = 0;
+        switch (this.trackLine.getDirection()) {
+            case LEFT_RIGHT -> lineDx = 1;
+            case RIGHT_LEFT -> lineDx = -1;
+            case TOP_DOWN -> lineDy = 1;
+            case DOWN_TOP -> lineDy = -1;
+        }
+
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % this.colCount;
+            int y = index / this.colCount;
+            boolean isLine = this.rows[y][x] == LINE;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = x + dx;
+                    int ny = y + dy;
+                    // The line is only left against its direction
+                    boolean isBehindLine = isLine && (dx * lineDx + dy * lineDy) > 0;
+                    if ((dx != 0 || dy != 0) && !isBehindLine && this.areValidCoords(nx, ny)) {
+                        int neighbour = this.toIndex(nx, ny);
+                        byte state = this.rows[ny][nx];
+                        if (distances[neighbour] == UNREACHABLE && state != GRAVEL && state != LINE) {
+                            distances[neighbour] = distances[index] + 1;
+                            queue[tail++] = neighbour;
+                        }
+                    }
+                }
+            }
+        }
+
+        return distances;
     }
 
     /**
@@ -189,9 +570,18 @@ public class Board {
      * @return true, if the coordinate is valid
      */
     public boolean areValidCoords(Point point) {
-        return (point != null) &&
-                (point.x() >= 0 && point.x() < this.cells.length) &&
-                (point.y() >= 0 && point.y() < this.cells[point.x()].length);
+        return (point != null) && this.areValidCoords(point.x(), point.y());
+    }
+
+    /**
+     * Checks if the coordinates are valid for the current board.
+     *
+     * @param x x-axis value of the coordinate
+     * @param y y-axis value of the coordinate
+     * @return true, if the coordinates are valid
+     */
+    public boolean areValidCoords(int x, int y) {
+        return x >= 0 && x < this.colCount && y >= 0 && y < this.rowCount;
     }
 
     /**
@@ -202,7 +592,7 @@ public class Board {
      * valid
      */
     public Cell getCellAtPosition(Point point) {
-        return this.areValidCoords(point) ? this.cells[point.x()][point.y()] : null;
+        return this.areValidCoords(point) ? this.getCells()[point.x()][point.y()] : null;
     }
 
     /**
@@ -254,7 +644,7 @@ public class Board {
      */
     public void turnIntoTrack(Point point) {
         if (this.areValidCoords(point)) {
-            this.cells[point.x()][point.y()].turnIntoTrack();
+            this.setState(point.x(), point.y(), TRACK);
         }
     }
 
@@ -266,7 +656,7 @@ public class Board {
      */
     public void turnIntoGravel(Point point) {
         if (this.areValidCoords(point)) {
-            this.cells[point.x()][point.y()].turnIntoGravel();
+            this.setState(point.x(), point.y(), GRAVEL);
         }
     }
 
@@ -278,24 +668,84 @@ public class Board {
      */
     public void turnIntoLine(Point point) {
         if (this.areValidCoords(point)) {
-            this.trackLine.calculate(this.cells, point);
+            this.trackLine.calculate(this, point);
+            this.layoutChanged();
             this.drawLine();
             this.trackLine.setIsDrawn(true);
         }
     }
 
     /**
-     * Called if the user wants to change a cell turn in to
-     * a car cell.
+     * Uses the given line as the start/finish line and turns its cells into
+     * line cells. In contrast to {@link #turnIntoLine(Point)} the extent and
+     * the direction of the line are not calculated from the track.
      *
-     * @param point point of the cell to turn into track
+     * @param trackLine the given line, its start and end point have to be on
+     *                  the board
+     */
+    public void turnIntoLine(TrackLine trackLine) {
+        this.setStartAndFinishLine(trackLine);
+        this.drawLine();
+        this.trackLine.setIsDrawn(true);
+    }
+
+    /**
+     * Puts the car of the given player on the given cell. The state of the
+     * cell does not change.
+     *
+     * @param point  point of the cell
+     * @param player index of the player in the race
      */
-    public void turnIntoCar(Point point) {
+    public void placeCar(Point point, int player) {
         if (this.areValidCoords(point)) {
-            this.cells[point.x()][point.y()].turnIntoCar();
+            this.cars.put(point.x(), point.y(), player);
         }
     }
 
+    /**
+     * Called if a car leaves the given cell.
+     *
+     * @param point point of the cell the car leaves
+     */
+    public void removeCar(Point point) {
+        if (point != null) {
+            this.cars.remove(point.x(), point.y());
+        }
+    }
+
+    /**
+     * Moves the car of the given player from the first to the second cell.
+     *
+     * @param from   point of the cell the car leaves
+     * @param to     point of the cell the car moves to
+     * @param player index of the player in the race
+     */
+    public void moveCar(Point from, Point to, int player) {
+        this.removeCar(from);
+        this.placeCar(to, player);
+    }
+
+    /**
+     * Returns the player whose car is on the cell at the given coordinates.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return index of the player or {@link OccupancyIndex#NONE} if no car is
+     * on the cell
+     */
+    public int getCarAt(int x, int y) {
+        return this.cars.get(x, y);
+    }
+
+    /**
+     * Returns the number of the cars on the board.
+     *
+     * @return number of the cars
+     */
+    public int getCarCount() {
+        return this.cars.size();
+    }
+
     /**
      * Checks if the cell is gravel or not.
      *
@@ -303,7 +753,18 @@ public class Board {
      * @return if the cell is gravel or not
      */
     public boolean isGravel(Point point) {
-        return point != null && this.cells[point.x()][point.y()].isGravel();
+        return point != null && this.isGravel(point.x(), point.y());
+    }
+
+    /**
+     * Checks if the cell at the given coordinates is gravel or not.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return if the cell is gravel or not
+     */
+    public boolean isGravel(int x, int y) {
+        return this.areValidCoords(x, y) && this.rows[y][x] == GRAVEL;
     }
 
     /**
@@ -313,7 +774,18 @@ public class Board {
      * @return if the cell is a track cell or not
      */
     public boolean isTrack(Point point) {
-        return point != null && this.cells[point.x()][point.y()].isTrack();
+        return point != null && this.isTrack(point.x(), point.y());
+    }
+
+    /**
+     * Checks if the cell at the given coordinates is a track cell or not.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return if the cell is a track cell or not
+     */
+    public boolean isTrack(int x, int y) {
+        return this.areValidCoords(x, y) && this.rows[y][x] == TRACK;
     }
 
     /**
@@ -322,7 +794,19 @@ public class Board {
      * @return if the cell is a part of the starting or finishing line
      */
     public boolean isLine(Point point) {
-        return point != null && this.cells[point.x()][point.y()].isLine();
+        return point != null && this.isLine(point.x(), point.y());
+    }
+
+    /**
+     * Checks if the cell at the given coordinates is a part of the starting
+     * or finishing line.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return if the cell is a part of the starting or finishing line
+     */
+    public boolean isLine(int x, int y) {
+        return this.areValidCoords(x, y) && this.rows[y][x] == LINE;
     }
 
     /**
@@ -332,7 +816,144 @@ public class Board {
      * @return if the cell is car or not
      */
     public boolean isCar(Point point) {
-        return point != null && this.cells[point.x()][point.y()].isCar();
+        return point != null && this.isCar(point.x(), point.y());
+    }
+
+    /**
+     * Checks if the cell at the given coordinates is car or not.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return if the cell is car or not
+     */
+    public boolean isCar(int x, int y) {
+        return this.cars.contains(x, y);
+    }
+
+    /**
+     * Checks whether a car can drive straight from the first to the second
+     * cell without touching the gravel, see
+     * {@link #isSegmentClear(int, int, int, int)}.
+     *
+     * @param from the cell the car starts on
+     * @param to   the cell the car stops on
+     * @return whether none of the cells on the way is gravel
+     */
+    public boolean isSegmentClear(Point from, Point to) {
+        return from != null && to != null && this.isSegmentClear(from.x(), from.y(), to.x(), to.y());
+    }
+
+    /**
+     * Checks whether a car can drive straight from the first to the second
+     * cell without touching the gravel. The car drives along the segment
+     * between the centers of the cells and touches every cell whose inside
+     * the segment passes, including both cells at the ends. Passing exactly
+     * through the corner of a cell does not touch it, just like the diagonal
+     * steps of the path finders.
+     * <p>
+     * The cells of the segment in one row are always next to each other, so
+     * each row is checked with a few words of the gravel bits instead of
+     * cell by cell.
+     *
+     * @param fromX x-axis value of the cell the car starts on
+     * @param fromY y-axis value of the cell the car starts on
+     * @param toX   x-axis value of the cell the car stops on
+     * @param toY   y-axis value of the cell the car stops on
+     * @return whether both cells are on the board and none of the cells on
+     * the way is gravel
+     */
+    public boolean isSegmentClear(int fromX, int fromY, int toX, int toY) {
+        if (!this.areValidCoords(fromX, fromY) || !this.areValidCoords(toX, toY)) {
+            return false;
+        }
+
+        long[] gravel = this.getGravelBits();
+        int dx = toX - fromX;
+        int dy = toY - fromY;
+        if (dy == 0) {
+            int row = this.toIndex(0, fromY);
+            return !isAnySet(gravel, row + Math.min(fromX, toX), row + Math.max(fromX, toX));
+        }
+
+        // The values are scaled by 2 * |dy|, so the segment only hits exact integers
+        long steps = Math.abs(dy);
+        long cellWidth = 2 * steps;
+        long startX = (2L * fromX + 1) * steps;
+        int stepY = Integer.signum(dy);
+        for (int k = 0; k <= steps; k++) {
+            // Part of the segment inside row k, in half rows from the start
+            long firstHalfRow = Math.max(0, 2L * k - 1);
+            long lastHalfRow = Math.min(cellWidth, 2L * k + 1);
+            long firstX = startX + firstHalfRow * dx;
+            long lastX = startX + lastHalfRow * dx;
+            long minX = Math.min(firstX, lastX);
+            long maxX = Math.max(firstX, lastX);
+            int lowCell = (int) Math.floorDiv(minX, cellWidth);
+            int highCell = (int) Math.floorDiv(maxX + cellWidth - 1, cellWidth) - 1;
+            int row = this.toIndex(0, fromY + k * stepY);
+            if (isAnySet(gravel, row + lowCell, row + Math.max(lowCell, highCell))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the gravel bits of the board, they are created on the first
+     * call.
+     *
+     * @return one bit per cell, set for the gravel cells
+     */
+    private long[] getGravelBits() {
+        long[] gravel = this.gravelBits;
+        if (gravel == null) {
+            synchronized (this) {
+                gravel = this.gravelBits;
+                if (gravel == null) {
+                    gravel = new long[(this.colCount * this.rowCount + 63) >>> 6];
+                    for (int y = 0; y < this.rowCount; y++) {
+                        for (int x = 0; x < this.colCount; x++) {
+                            if (this.rows[y][x] == GRAVEL) {
+                                int index = this.toIndex(x, y);
+                                gravel[index >>> 6] |= 1L << index;
+                            }
+                        }
+                    }
+                    this.gravelBits = gravel;
+                }
+            }
+        }
+
+        return gravel;
+    }
+
+    /**
+     * Checks whether any bit of the given range is set.
+     *
+     * @param bits the bits
+     * @param from index of the first bit of the range
+     * @param to   index of the last bit of the range
+     * @return whether a bit of the range is set
+     */
+    private static boolean isAnySet(long[] bits, int from, int to) {
+        int fromWord = from >>> 6;
+        int toWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (fromWord == toWord) {
+            return (bits[fromWord] & firstMask & lastMask) != 0;
+        }
+        if ((bits[fromWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int word = fromWord + 1; word < toWord; word++) {
+            if (bits[word] != 0) {
+                return true;
+            }
+        }
+
+        return (bits[toWord] & lastMask) != 0;
     }
 
     /**
@@ -345,19 +966,27 @@ public class Board {
                 int endY = this.trackLine.getEndPoint().y();
                 int lineX = this.trackLine.getEndPoint().x();
                 for (int row = this.trackLine.getStartPoint().y(); row <= endY; row++) {
-                    this.cells[lineX][row].turnIntoLine();
+                    this.setState(lineX, row, LINE);
                 }
             }
             case TOP_DOWN, DOWN_TOP -> {
                 int endX = this.trackLine.getEndPoint().x();
                 int lineY = this.trackLine.getEndPoint().y();
                 for (int col = this.trackLine.getStartPoint().x(); col <= endX; col++) {
-                    this.cells[col][lineY].turnIntoLine();
+                    this.setState(col, lineY, LINE);
                 }
             }
         }
     }
 
+    /**
+     * Reverses the direction of the start/finish line.
+     */
+    public void reverseLine() {
+        this.trackLine.toggleDirection();
+        this.layoutChanged();
+    }
+
     /**
      * Turns the current line on the track field into normal
      * track cells instead of line cells.
@@ -398,11 +1027,13 @@ public class Board {
         int newStartX = 0, newEndX = 0, newStartY = 0, newEndY = 0;
 
         this.turnLineIntoTrack();
+        // The direction changes even if the line keeps its cells
+        this.layoutChanged();
 
-        int topCells = this.trackLine.countTopCells(this.trackLine.getStartPoint(), y, this.cells.length);
-        int bottomCells = this.trackLine.countBottomCells(this.trackLine.getEndPoint(), y, this.cells.length);
-        int leftCells = this.trackLine.countLeftCells(this.trackLine.getStartPoint(), x, this.cells.length);
-        int rightCells = this.trackLine.countRightCells(this.trackLine.getEndPoint(), x, this.cells.length);
+        int topCells = this.trackLine.countTopCells(this.trackLine.getStartPoint(), y, this.rowCount);
+        int bottomCells = this.trackLine.countBottomCells(this.trackLine.getEndPoint(), y, this.rowCount);
+        int leftCells = this.trackLine.countLeftCells(this.trackLine.getStartPoint(), x, this.colCount);
+        int rightCells = this.trackLine.countRightCells(this.trackLine.getEndPoint(), x, this.colCount);
         switch (currentDirection) {
             case RIGHT_LEFT -> {
                 newEndX = this.changeLeftCells(x, y, bottomCells);
@@ -424,7 +1055,7 @@ public class Board {
 
         switch (currentDirection) {
             case RIGHT_LEFT, LEFT_RIGHT -> {
-                this.cells[x][y].turnIntoLine();
+                this.setState(x, y, LINE);
                 if (newStartX < newEndX) {
                     this.trackLine.setStartPoint(new Point(newStartX, y));
                     this.trackLine.setEndPoint(new Point(newEndX, y));
@@ -436,7 +1067,7 @@ public class Board {
                 this.trackLine.rotateDirection();
             }
             case TOP_DOWN, DOWN_TOP -> {
-                this.cells[x][y].turnIntoLine();
+                this.setState(x, y, LINE);
                 if (newStartY < newEndY) {
                     this.trackLine.setStartPoint(new Point(x, newStartY));
                     this.trackLine.setEndPoint(new Point(x, newEndY));
@@ -463,8 +1094,8 @@ public class Board {
     private int changeLeftCells(int x, int y, int numOfChanges) {
         int newStartX = x;
         for (int currentX = x - 1; (numOfChanges > 0 && currentX >= 0); numOfChanges--, currentX--) {
-            if (this.cells[currentX][y].isTrack()) {
-                this.cells[currentX][y].turnIntoLine();
+            if (this.rows[y][currentX] == TRACK) {
+                this.setState(currentX, y, LINE);
                 newStartX--;
             } else {
                 break;
@@ -486,9 +1117,9 @@ public class Board {
      */
     private int changeRightCells(int x, int y, int numOfChanges) {
         int newEndX = x;
-        for (int currentX = x + 1; (numOfChanges > 0 && currentX < this.cells.length); numOfChanges--, currentX++) {
-            if (this.cells[currentX][y].isTrack()) {
-                this.cells[currentX][y].turnIntoLine();
+        for (int currentX = x + 1; (numOfChanges > 0 && currentX < this.colCount); numOfChanges--, currentX++) {
+            if (this.rows[y][currentX] == TRACK) {
+                this.setState(currentX, y, LINE);
                 newEndX++;
             } else {
                 break;
@@ -511,8 +1142,8 @@ public class Board {
     private int changeTopCells(int x, int y, int numOfChanges) {
         int newStartY = y;
         for (int currentY = y - 1; (numOfChanges > 0 && currentY >= 0); numOfChanges--, currentY--) {
-            if (this.cells[x][currentY].isTrack()) {
-                this.cells[x][currentY].turnIntoLine();
+            if (this.rows[currentY][x] == TRACK) {
+                this.setState(x, currentY, LINE);
                 newStartY--;
             } else {
                 break;
@@ -534,9 +1165,9 @@ public class Board {
      */
     private int changeBottomCells(int x, int y, int numOfChanges) {
         int newEndY = y;
-        for (int currentY = y + 1; (numOfChanges > 0 && currentY < this.cells.length); numOfChanges--, currentY++) {
-            if (this.cells[x][currentY].isTrack()) {
-                this.cells[x][currentY].turnIntoLine();
+        for (int currentY = y + 1; (numOfChanges > 0 && currentY < this.rowCount); numOfChanges--, currentY++) {
+            if (this.rows[currentY][x] == TRACK) {
+                this.setState(x, currentY, LINE);
                 newEndY++;
             } else {
                 break;
@@ -554,80 +1185,92 @@ public class Board {
      * a valid path or track or not
      */
     public boolean hasValidPath() {
-        boolean isValid = false;
-        if (this.trackLine.isDrawn()) {
-            PathList pathList = null;
-            int startX = this.trackLine.getStartPoint().x();
-            int startY = this.trackLine.getStartPoint().y();
-            int endX = this.trackLine.getEndPoint().x();
-            int endY = this.trackLine.getEndPoint().y();
-            LineDirection currentDirection = this.trackLine.getDirection();
-
-            switch (currentDirection) {
-                case LEFT_RIGHT, RIGHT_LEFT -> { // Line is vertical
-                    if ((
-                            // Whether the top cell of the start of the line is a valid cell
-                            (startY > 0 && this.areValidCoords(new Point(startX, startY - 1))
-                                    && this.isGravel(new Point(startX, startY - 1)))
-                                    || startY == 0 // Cell is the border itself
-                    ) && (
-                            // Whether the bottom cell of the end of the line is a valid cell
-                            (endY < this.cells.length - 1 && this.areValidCoords(new Point(endX, endY + 1))
-                                    && this.isGravel(new Point(endX, endY + 1)))
-                                    || endY == this.cells.length - 1 // Cell is the border itself
-                    )) {
-                        switch (currentDirection) {
-                            case RIGHT_LEFT -> pathList = pathFinder.getPathFromPosToPos(
-                                    new Point(startX - 1, startY),
-                                    new Point(endX + 1, endY),
-                                    this
-                            );
-                            case LEFT_RIGHT -> pathList = pathFinder.getPathFromPosToPos(
-                                    new Point(startX + 1, startY),
-                                    new Point(endX - 1, endY),
-                                    this
-                            );
-                        }
-                    }
+        return this.isTrackClosed();
+    }
+
+    /**
+     * Checks whether the track is closed, which means the line is drawn, both
+     * ends of the line touch gravel or the border and the track cells on both
+     * sides of the line are connected. The connectivity is kept up to date on
+     * every edit, so this check is nearly constant time unless track cells
+     * were removed since the last check.
+     *
+     * @return whether the track is closed
+     */
+    public synchronized boolean isTrackClosed() {
+        Point[] sides = this.findLineSides();
+        if (sides == null) {
+            return false;
+        }
+
+        if (this.connectivity == null) {
+            this.connectivity = new TrackConnectivity(this.findTrackCells(), this.colCount, this.rowCount);
+        } else if (this.connectivity.isOutdated()) {
+            this.connectivity.rebuild(this.findTrackCells());
+        }
+
+        return this.connectivity.areConnected(sides[0].x(), sides[0].y(), sides[1].x(), sides[1].y());
+    }
+
+    /**
+     * Finds the cells in front of the start and behind the end of the line
+     * which have to be connected by the track. The line has to be drawn and
+     * both of its ends have to touch gravel or the border.
+     *
+     * @return the cell after the line and the cell before the line or null,
+     * if the line does not close the track
+     */
+    private Point[] findLineSides() {
+        if (!this.trackLine.isDrawn()) {
+            return null;
+        }
+
+        int startX = this.trackLine.getStartPoint().x();
+        int startY = this.trackLine.getStartPoint().y();
+        int endX = this.trackLine.getEndPoint().x();
+        int endY = this.trackLine.getEndPoint().y();
+        LineDirection currentDirection = this.trackLine.getDirection();
+
+        return switch (currentDirection) {
+            case LEFT_RIGHT, RIGHT_LEFT -> { // Line is vertical
+                // Whether the top cell of the start and the bottom cell of
+                // the end of the line are gravel or the border itself
+                if ((startY == 0 || this.isGravel(startX, startY - 1))
+                        && (endY == this.rowCount - 1 || this.isGravel(endX, endY + 1))) {
+                    yield currentDirection == LineDirection.RIGHT_LEFT
+                            ? new Point[]{new Point(startX - 1, startY), new Point(endX + 1, endY)}
+                            : new Point[]{new Point(startX + 1, startY), new Point(endX - 1, endY)};
                 }
-                case TOP_DOWN, DOWN_TOP -> { // Line is horizontal
-                    if ((
-                            // Whether the left cell of the start of the line is a valid cell
-                            (startX > 0 && this.areValidCoords(new Point(startX - 1, startY))
-                                    && this.isGravel(new Point(startX - 1, startY)))
-                                    || startX == 0 // Cell is the border itself
-                    ) && (
-                            // Whether the right cell of the start of the line is a valid cell
-                            (endX < this.cells.length - 1 && this.areValidCoords(new Point(endX + 1, endY))
-                                    && this.isGravel(new Point(endX + 1, endY)))
-                                    || endX == this.cells.length - 1 // Cell is the border itself
-                    )) {
-                        switch (currentDirection) {
-                            case DOWN_TOP -> pathList = pathFinder.getPathFromPosToPos(
-                                    new Point(startX, startY - 1),
-                                    new Point(endX, endY + 1),
-                                    this
-                            );
-                            case TOP_DOWN -> pathList = pathFinder.getPathFromPosToPos(
-                                    new Point(startX, startY + 1),
-                                    new Point(endX, endY - 1),
-                                    this
-                            );
-                        }
-                    }
+                yield null;
+            }
+            case TOP_DOWN, DOWN_TOP -> { // Line is horizontal
+                // Whether the left cell of the start and the right cell of
+                // the end of the line are gravel or the border itself
+                if ((startX == 0 || this.isGravel(startX - 1, startY))
+                        && (endX == this.colCount - 1 || this.isGravel(endX + 1, endY))) {
+                    yield currentDirection == LineDirection.DOWN_TOP
+                            ? new Point[]{new Point(startX, startY - 1), new Point(endX, endY + 1)}
+                            : new Point[]{new Point(startX, startY + 1), new Point(endX, endY - 1)};
                 }
+                yield null;
             }
+        };
+    }
 
-            if (pathList != null && !pathList.isEmpty()) {
-                isValid = true;
-                pathList.insertAtFront(new Cell(new Point(startX, startY), CellState.LINE));
-                this.track = pathList;
-
-                System.out.println(pathList);
+    /**
+     * Flags all the track cells of the board.
+     *
+     * @return whether the cell with the index y * colCount + x is a track cell
+     */
+    private boolean[] findTrackCells() {
+        boolean[] isTrack = new boolean[this.colCount * this.rowCount];
+        for (int y = 0; y < this.rowCount; y++) {
+            for (int x = 0; x < this.colCount; x++) {
+                isTrack[this.toIndex(x, y)] = this.rows[y][x] == TRACK;
             }
         }
 
-        return isValid;
+        return isTrack;
     }
 
     /**
@@ -638,15 +1281,15 @@ public class Board {
     @Override
     public String toString() {
         StringBuilder output = new StringBuilder();
-        for (int row = 0; row < this.cells[0].length; row++) {
-            for (int col = 0; col < this.cells.length; col++) {
-                output.append(this.cells[col][row]);
-                if (col != this.cells.length - 1) {
+        for (int row = 0; row < this.rowCount; row++) {
+            for (int col = 0; col < this.colCount; col++) {
+                output.append(this.rows[row][col]);
+                if (col != this.colCount - 1) {
                     output.append(" ");
                 }
             }
 
-            if (row != this.cells[0].length - 1) {
+            if (row != this.rowCount - 1) {
                 output.append("\n");
             }
         }
@@ -658,123 +1301,128 @@ public class Board {
      * Adds one row on top of the current board.
      */
     public void addRowTop() {
-        Cell[][] newCells = new Cell[this.cells.length][this.cells[0].length + 1];
-        for (int col = 0; col < this.cells.length; col++) {
-            newCells[col][0] = new Cell(new Point(col, 0));
-        }
-        for (int row = 1; row < newCells[0].length; row++) {
-            for (int col = 0; col < newCells.length; col++) {
-                newCells[col][row] = this.cells[col][row - 1];
-            }
-        }
-
-        this.cells = newCells;
+        this.insertRow(0);
     }
 
     /**
      * Adds one row to bottom of the current board.
      */
     public void addRowBottom() {
-        Cell[][] newCells = new Cell[this.cells.length][this.cells[0].length + 1];
-        for (int row = 0; row < newCells[0].length - 1; row++) {
-            for (int col = 0; col < newCells.length; col++) {
-                newCells[col][row] = this.cells[col][row];
-            }
-        }
-        for (int col = 0; col < this.cells.length; col++) {
-            newCells[col][newCells[0].length - 1] = new Cell(new Point(col, newCells[0].length - 1));
-        }
-
-        this.cells = newCells;
+        this.insertRow(this.rowCount);
     }
 
     /**
      * Adds one column to left of the current board.
      */
     public void addColLeft() {
-        Cell[][] newCells = new Cell[this.cells.length + 1][this.cells[0].length];
-        for (int row = 0; row < this.cells[0].length; row++) {
-            newCells[0][row] = new Cell(new Point(0, row));
-        }
-        for (int row = 0; row < newCells[0].length; row++) {
-            for (int col = 1; col < newCells.length; col++) {
-                newCells[col][row] = this.cells[col - 1][row];
-            }
-        }
-
-        this.cells = newCells;
+        this.resizeColumns(this.colCount + 1, 0, 1);
     }
 
     /**
      * Adds one column to right of the current board.
      */
     public void addColRight() {
-        Cell[][] newCells = new Cell[this.cells.length + 1][this.cells[0].length];
-        for (int row = 0; row < newCells[0].length; row++) {
-            for (int col = 0; col < newCells.length - 1; col++) {
-                newCells[col][row] = this.cells[col][row];
-            }
-        }
-        for (int row = 0; row < this.cells[0].length; row++) {
-            newCells[newCells.length - 1][row] = new Cell(new Point(newCells.length - 1, row));
-        }
-
-        this.cells = newCells;
+        this.resizeColumns(this.colCount + 1, 0, 0);
     }
 
     /**
      * Removes one row from top of the current board.
      */
     public void removeRowTop() {
-        Cell[][] newCells = new Cell[this.cells.length][this.cells[0].length - 1];
-        for (int row = 1; row < this.cells[0].length; row++) {
-            for (int col = 0; col < newCells.length; col++) {
-                newCells[col][row - 1] = this.cells[col][row];
-            }
-        }
-
-        this.cells = newCells;
+        this.deleteRow(0);
     }
 
     /**
      * Removes one row from bottom of the current board.
      */
     public void removeRowBottom() {
-        Cell[][] newCells = new Cell[this.cells.length][this.cells[0].length - 1];
-        for (int row = 0; row < this.cells[0].length - 1; row++) {
-            for (int col = 0; col < newCells.length; col++) {
-                newCells[col][row] = this.cells[col][row];
-            }
-        }
-
-        this.cells = newCells;
+        this.deleteRow(this.rowCount - 1);
     }
 
     /**
      * Removes one column from the left of the current board.
      */
     public void removeColLeft() {
-        Cell[][] newCells = new Cell[this.cells.length - 1][this.cells[0].length];
-        for (int row = 0; row < this.cells[0].length; row++) {
-            for (int col = 1; col < this.cells.length; col++) {
-                newCells[col - 1][row] = this.cells[col][row];
-            }
-        }
-
-        this.cells = newCells;
+        this.resizeColumns(this.colCount - 1, 1, 0);
     }
 
     /**
      * Removes one column from the right of the current board.
      */
     public void removeColRight() {
-        Cell[][] newCells = new Cell[this.cells.length - 1][this.cells[0].length];
-        for (int row = 0; row < this.cells[0].length; row++) {
-            for (int col = 0; col < this.cells.length - 1; col++) {
-                newCells[col][row] = this.cells[col][row];
-            }
+        this.resizeColumns(this.colCount - 1, 0, 0);
+    }
+
+    /**
+     * Inserts a row of gravel cells at the given index. Only the references
+     * to the rows are copied, the other rows are kept as they are.
+     *
+     * @param y index of the new row
+     */
+    private void insertRow(int y) {
+        byte[][] newRows = new byte[this.rowCount + 1][];
+        boolean[] newOwnsRow = new boolean[this.rowCount + 1];
+        System.arraycopy(this.rows, 0, newRows, 0, y);
+        System.arraycopy(this.rows, y, newRows, y + 1, this.rowCount - y);
+        if (this.ownsRowTable) {
+            System.arraycopy(this.ownsRow, 0, newOwnsRow, 0, y);
+            System.arraycopy(this.ownsRow, y, newOwnsRow, y + 1, this.rowCount - y);
+        }
+        newRows[y] = new byte[this.colCount];
+        newOwnsRow[y] = true;
+
+        this.replaceRows(newRows, newOwnsRow);
+    }
+
+    /**
+     * Deletes the row at the given index. Only the references to the rows
+     * are copied, the other rows are kept as they are.
+     *
+     * @param y index of the row
+     */
+    private void deleteRow(int y) {
+        byte[][] newRows = new byte[this.rowCount - 1][];
+        boolean[] newOwnsRow = new boolean[this.rowCount - 1];
+        System.arraycopy(this.rows, 0, newRows, 0, y);
+        System.arraycopy(this.rows, y + 1, newRows, y, this.rowCount - y - 1);
+        if (this.ownsRowTable) {
+            System.arraycopy(this.ownsRow, 0, newOwnsRow, 0, y);
+            System.arraycopy(this.ownsRow, y + 1, newOwnsRow, y, this.rowCount - y - 1);
+        }
+
+        this.replaceRows(newRows, newOwnsRow);
+    }
+
+    /**
+     * Replaces the rows of the board after the number of the rows changed.
+     *
+     * @param newRows    the new rows
+     * @param newOwnsRow whether the board may write into each of the new rows
+     */
+    private void replaceRows(byte[][] newRows, boolean[] newOwnsRow) {
+        this.rows = newRows;
+        this.ownsRow = newOwnsRow;
+        this.ownsRowTable = true;
+        this.rowCount = newRows.length;
+        this.resetCaches();
+    }
+
+    /**
+     * Changes the number of the columns of the board by copying each row
+     * into a new row.
+     *
+     * @param newColCount  the new number of the columns
+     * @param sourceOffset first column of the old rows which is copied
+     * @param targetOffset column of the new rows the copy starts at
+     */
+    private void resizeColumns(int newColCount, int sourceOffset, int targetOffset) {
+        byte[][] oldRows = this.rows;
+        int copiedCols = Math.min(this.colCount - sourceOffset, newColCount - targetOffset);
+        this.createRows(newColCount, this.rowCount);
+        for (int row = 0; row < this.rowCount; row++) {
+            System.arraycopy(oldRows[row], sourceOffset, this.rows[row], targetOffset, copiedCols);
         }
 
-        this.cells = newCells;
+        this.resetCaches();
     }
 }
@@ -12,12 +12,6 @@ public class Cell {
      */
     private CellState currentState;
 
-    /**
-     * Cell, that is in the path the predecessor of this cell. Important for the
-     * pathfinder.
-     */
-    private Cell parent;
-
     /**
      * Point of the cell on the field
      */
@@ -44,7 +38,7 @@ public class Cell {
      * @param point     the given position
      * @param cellState the given state
      */
-    Cell(Point point, CellState cellState) {
+    public Cell(Point point, CellState cellState) {
         this.point = point;
         this.currentState = cellState;
     }
@@ -59,23 +53,13 @@ public class Cell {
     }
 
     /**
-     * Returns the parent cell. The parent cell is the cell that is in the path
-     * located before this cell.
-     *
-     * @return cell, that is in a path before this cell
-     */
-    public Cell getParentCell() {
-        return this.parent;
-    }
-
-    /**
-     * Sets the parent cell. The parent cell is the cell that is located in the
-     * path right before this cell (the predecessor).
+     * Setter method of the currentState of the cell. Used by the board to
+     * keep its cells up to date with its states.
      *
-     * @param parent predecessor of this cell in the path
+     * @param currentState the new state of the cell
      */
-    public void setParentCell(Cell parent) {
-        this.parent = parent;
+    void setCurrentState(CellState currentState) {
+        this.currentState = currentState;
     }
 
     /**
@@ -185,4 +185,22 @@ public interface GUIConnector {
      */
 
     void turnIntoState(Point point, CellState cellState, LineDirection lineDirection);
+
+    /**
+     * Shows whether the edited track is closed, which means a race can be
+     * started on it.
+     *
+     * @param isClosed whether the track is closed
+     */
+    void updateTrackClosedLabel(boolean isClosed);
+
+    /**
+     * Shows all the cells of the given board at once, for example after
+     * the board is loaded. The shown grid has to have the size of the
+     * board.
+     *
+     * @param board the given board
+     * @throws IllegalArgumentException if the grid has another size
+     */
+    void drawBoard(Board board);
 }
@@ -0,0 +1,182 @@
+package logic;
+
+import java.util.List;
+
+/**
+ * A race read by the {@link TrackLoader}: the board with its start/finish
+ * line, the active players, the player who has the turn and the progress of
+ * the race. A loaded race is turned into a {@link RaceTrack} which goes on
+ * where the saved one stopped.
+ *
+ * @author ite105705
+ */
+public final class LoadedRace {
+
+    /**
+     * The loaded board.
+     */
+    private final Board board;
+
+    /**
+     * The active players of the race.
+     */
+    private final Player[] players;
+
+    /**
+     * Index of the player who has the turn.
+     */
+    private final int currentPlayerIndex;
+
+    /**
+     * Number of the laps of the race.
+     */
+    private final int lapCount;
+
+    /**
+     * Checkpoints of the race.
+     */
+    private final List<TrackLine> checkpoints;
+
+    /**
+     * Whether all the cars were placed.
+     */
+    private final boolean placementEnded;
+
+    /**
+     * Indexes of the players who have completed all the laps.
+     */
+    private final List<Integer> winners;
+
+    /**
+     * Creates a loaded race which has not started yet.
+     *
+     * @param board              the loaded board
+     * @param players            the active players of the race
+     * @param currentPlayerIndex index of the player who has the turn
+     */
+    LoadedRace(Board board, Player[] players, int currentPlayerIndex) {
+        this(board, players, currentPlayerIndex, 1, List.of(), false, List.of());
+    }
+
+    /**
+     * Creates a loaded race.
+     *
+     * @param board              the loaded board
+     * @param players            the active players of the race
+     * @param currentPlayerIndex index of the player who has the turn
+     * @param lapCount           number of the laps of the race
+     * @param checkpoints        checkpoints of the race
+     * @param placementEnded     whether all the cars were placed
+     * @param winners            indexes of the players who have completed
+     *                           all the laps
+     */
+    LoadedRace(Board board, Player[] players, int currentPlayerIndex, int lapCount, List<TrackLine> checkpoints,
+               boolean placementEnded, List<Integer> winners) {
+        this.board = board;
+        this.players = players;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.lapCount = lapCount;
+        this.checkpoints = List.copyOf(checkpoints);
+        this.placementEnded = placementEnded;
+        this.winners = List.copyOf(winners);
+    }
+
+    /**
+     * Getter method of the loaded board.
+     *
+     * @return the board
+     */
+    public Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Getter method of the active players.
+     *
+     * @return the players, the array is empty if the race has none
+     */
+    public Player[] getPlayers() {
+        return this.players;
+    }
+
+    /**
+     * Getter method of the index of the player who has the turn.
+     *
+     * @return index of the current player
+     */
+    public int getCurrentPlayerIndex() {
+        return this.currentPlayerIndex;
+    }
+
+    /**
+     * Getter method of the number of the laps of the race.
+     *
+     * @return number of the laps
+     */
+    public int getLapCount() {
+        return this.lapCount;
+    }
+
+    /**
+     * Getter method of the checkpoints of the race.
+     *
+     * @return the checkpoints in their order
+     */
+    public List<TrackLine> getCheckpoints() {
+        return this.checkpoints;
+    }
+
+    /**
+     * Checks whether all the cars were placed.
+     *
+     * @return whether the placement was ended
+     */
+    public boolean isPlacementEnded() {
+        return this.placementEnded;
+    }
+
+    /**
+     * Creates the race track of the loaded race, it goes on by
+     * {@link RaceTrack#resumeGame()}. A race without players gets an AI
+     * player, like a new race.
+     *
+     * @param gui the gui to display on
+     * @return the race track
+     */
+    public RaceTrack createRaceTrack(GUIConnector gui) {
+        Player[] gamePlayers = this.players.length == 0
+                ? new Player[]{new Player("", PlayerStatus.AI, 0)}
+                : this.players;
+
+        return this.restore(new RaceTrack(gui, this.board, gamePlayers));
+    }
+
+    /**
+     * Creates a headless race of the loaded race, it goes on by
+     * {@link RaceTrack#step()} or {@link RaceTrack#runRace(int)}.
+     *
+     * @param racingLineSolver solver of the track of the board or null, if
+     *                         the race creates its own one
+     * @return the headless race
+     * @throws IllegalArgumentException if one of the players is not an AI
+     *                                  player
+     */
+    public RaceTrack createHeadlessRace(RacingLineSolver racingLineSolver) {
+        return this.restore(new RaceTrack(this.board, this.players, racingLineSolver));
+    }
+
+    /**
+     * Restores the progress of the loaded race in the given race track.
+     *
+     * @param raceTrack the given race track
+     * @return the given race track
+     */
+    private RaceTrack restore(RaceTrack raceTrack) {
+        raceTrack.setCurrentPlayerIndex(this.currentPlayerIndex);
+        raceTrack.setLapCount(this.lapCount);
+        raceTrack.setCheckpoints(this.checkpoints);
+        raceTrack.restore(this.placementEnded, this.winners);
+
+        return raceTrack;
+    }
+}
@@ -0,0 +1,256 @@
+package logic;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Read-only view of a track file in the format of {@link TrackFile}, which
+ * reads the cells straight from the memory map of the file. Only the runs of
+ * the row of a cell are decoded to find its state, so a huge track can be
+ * queried without creating a board for it. The view only uses absolute reads
+ * of the buffer and can be shared by several threads.
+ * <p>
+ * The view is not a {@link Board}: a race changes the cells of its board, so
+ * {@link TrackLoader} decodes the track with {@link #toBoard()} to race on it.
+ *
+ * @author ite105705
+ */
+public final class MappedTrack {
+
+    /**
+     * The mapped file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of the columns of the track.
+     */
+    private final int colCount;
+
+    /**
+     * Number of the rows of the track.
+     */
+    private final int rowCount;
+
+    /**
+     * Position of the first run in the buffer.
+     */
+    private final int dataStart;
+
+    /**
+     * The start/finish line of the track.
+     */
+    private final TrackLine trackLine;
+
+    /**
+     * Creates a view of the given buffer, its header is already checked by
+     * {@link TrackFile#map(java.nio.file.Path)}.
+     *
+     * @param buffer the mapped file
+     * @throws IllegalStateException if the size of the track or the offsets
+     *                               of the rows do not match the file
+     */
+    MappedTrack(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.colCount = buffer.getInt(8);
+        this.rowCount = buffer.getInt(12);
+        if (this.colCount < 0 || this.rowCount < 0
+            || TrackFile.HEADER_SIZE + (long) Integer.BYTES * (this.rowCount + 1) > buffer.limit()) {
+            throw new IllegalStateException("The size of the track does not match the file");
+        }
+        this.dataStart = TrackFile.HEADER_SIZE + Integer.BYTES * (this.rowCount + 1);
+        for (int y = 0; y < this.rowCount; y++) {
+            int offset = this.offsetOf(y);
+            if (offset < 0 || offset > this.offsetOf(y + 1)) {
+                throw new IllegalStateException("The offset of the row " + y + " does not match the file");
+            }
+        }
+        if (this.dataStart + (long) this.offsetOf(this.rowCount) > buffer.limit()) {
+            throw new IllegalStateException("The data of the track does not match the file");
+        }
+
+        LineDirection direction = TrackLine.toLineDirection(Byte.toString(buffer.get(6)));
+        if ((buffer.get(7) & TrackFile.FLAG_HAS_LINE) != 0) {
+            Point start = new Point(buffer.getInt(16), buffer.getInt(20));
+            Point end = new Point(buffer.getInt(24), buffer.getInt(28));
+            this.trackLine = new TrackLine(start, end, direction);
+            this.trackLine.setIsDrawn(true);
+        } else {
+            this.trackLine = new TrackLine(direction);
+        }
+    }
+
+    /**
+     * Returns the number of the columns of the track.
+     *
+     * @return number of the columns
+     */
+    public int getColCount() {
+        return this.colCount;
+    }
+
+    /**
+     * Returns the number of the rows of the track.
+     *
+     * @return number of the rows
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns a copy of the start/finish line of the track.
+     *
+     * @return the start/finish line
+     */
+    public TrackLine getStartAndFinishLine() {
+        TrackLine line = new TrackLine(this.trackLine.getStartPoint(), this.trackLine.getEndPoint(),
+                                       this.trackLine.getDirection());
+        line.setIsDrawn(this.trackLine.isDrawn());
+
+        return line;
+    }
+
+    /**
+     * Checks whether the given coordinates are on the track.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return whether the coordinates are valid
+     */
+    public boolean areValidCoords(int x, int y) {
+        return x >= 0 && x < this.colCount && y >= 0 && y < this.rowCount;
+    }
+
+    /**
+     * Returns the state of the cell at the given coordinates. The runs of
+     * its row are read until the one which covers the cell.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return state of the cell
+     * @throws IndexOutOfBoundsException if the coordinates are not valid
+     * @throws IllegalStateException     if the row is corrupt
+     */
+    public CellState getState(int x, int y) {
+        if (!this.areValidCoords(x, y)) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is not on the track");
+        }
+
+        int position = this.dataStart + this.offsetOf(y);
+        int end = this.dataStart + this.offsetOf(y + 1);
+        int runEnd = 0;
+        while (position < end) {
+            byte state = this.buffer.get(position);
+            long run = this.getVarInt(position + 1);
+            position += 1 + (int) (run >>> 32);
+            runEnd += (int) run;
+            if (x < runEnd) {
+                return toState(state);
+            }
+        }
+
+        throw new IllegalStateException("The row " + y + " is shorter than the track");
+    }
+
+    /**
+     * Decodes the whole track into a new board, the line included.
+     *
+     * @return the board of the track
+     * @throws IllegalStateException if one of the rows is corrupt
+     */
+    public Board toBoard() {
+        byte[][] rows = new byte[this.rowCount][];
+        for (int y = 0; y < this.rowCount; y++) {
+            rows[y] = this.decodeRow(y);
+        }
+
+        Board board = new Board(rows, this.trackLine.getDirection());
+        board.setStartAndFinishLine(this.getStartAndFinishLine());
+
+        return board;
+    }
+
+    /**
+     * Decodes the given row into the ordinals of its states.
+     *
+     * @param y index of the row
+     * @return the states of the row
+     * @throws IllegalStateException if the runs do not cover the row exactly
+     */
+    private byte[] decodeRow(int y) {
+        byte[] row = new byte[this.colCount];
+        int position = this.dataStart + this.offsetOf(y);
+        int end = this.dataStart + this.offsetOf(y + 1);
+        int x = 0;
+        while (position < end) {
+            byte state = (byte) toState(this.buffer.get(position)).ordinal();
+            long run = this.getVarInt(position + 1);
+            position += 1 + (int) (run >>> 32);
+            int length = (int) run;
+            if (length <= 0 || length > this.colCount - x) {
+                throw new IllegalStateException("The runs of the row " + y + " do not match the track");
+            }
+            Arrays.fill(row, x, x + length, state);
+            x += length;
+        }
+        if (x != this.colCount) {
+            throw new IllegalStateException("The runs of the row " + y + " do not match the track");
+        }
+
+        return row;
+    }
+
+    /**
+     * Returns the offset of the given row in the data.
+     *
+     * @param y index of the row, the row count gives the length of the data
+     * @return the offset
+     */
+    private int offsetOf(int y) {
+        return this.buffer.getInt(TrackFile.HEADER_SIZE + Integer.BYTES * y);
+    }
+
+    /**
+     * Reads a variable-length integer at the given position.
+     *
+     * @param position position of its first byte
+     * @return the value in the lower 32 bits and the number of its bytes in
+     * the upper 32 bits
+     */
+    private long getVarInt(int position) {
+        int value = 0;
+        int length = 0;
+        byte next;
+        do {
+            if (length == 5) {
+                throw new IllegalStateException("The length of a run is too long at " + position);
+            }
+            next = this.buffer.get(position + length);
+            value |= (next & 0x7F) << (7 * length);
+            length++;
+        } while (next < 0);
+
+        return (long) length << 32 | (value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Converts the ordinal of a state, only gravel, track and line cells are
+     * stored.
+     *
+     * @param ordinal the ordinal
+     * @return the state
+     * @throws IllegalStateException if the ordinal is not one of them
+     */
+    private static CellState toState(byte ordinal) {
+        if (ordinal == CellState.GRAVEL.ordinal()) {
+            return CellState.GRAVEL;
+        } else if (ordinal == CellState.TRACK.ordinal()) {
+            return CellState.TRACK;
+        } else if (ordinal == CellState.LINE.ordinal()) {
+            return CellState.LINE;
+        }
+
+        throw new IllegalStateException("Unexpected value: " + ordinal);
+    }
+}
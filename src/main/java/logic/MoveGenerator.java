@@ -0,0 +1,164 @@
+package logic;
+
+/**
+ * Generates the legal moves of a car without creating any objects, for the
+ * AI and the simulation loops which check the moves of every turn. The nine
+ * moves of a car are numbered in the order of
+ * {@link Player#newPossibleDestinations()}: move 0 keeps the speed, the moves
+ * 1 to 8 accelerate by one cell per axis, clockwise beginning with up. The
+ * legal moves are returned as a mask, bit i is set if move i is legal.
+ * <p>
+ * A move is legal if its destination is on the board and no other car is on
+ * it, just like the valid points of {@link RaceTrack}. Moving into the gravel
+ * is legal, the car crashes afterwards.
+ *
+ * @author ite105705
+ */
+public final class MoveGenerator {
+
+    /**
+     * Number of the possible moves of a car.
+     */
+    public static final int MOVE_COUNT = 9;
+
+    /**
+     * Mask with all the moves.
+     */
+    public static final int ALL_MOVES = (1 << MOVE_COUNT) - 1;
+
+    /**
+     * Offsets of the x-axis values of the nine accelerations.
+     */
+    static final int[] ACCELERATION_X = {0, 0, 1, 1, 1, 0, -1, -1, -1};
+
+    /**
+     * Offsets of the y-axis values of the nine accelerations.
+     */
+    static final int[] ACCELERATION_Y = {0, -1, -1, 0, 1, 1, 1, 0, -1};
+
+    /**
+     * Number of the move of each acceleration, indexed by
+     * (ay + 1) * 3 + ax + 1.
+     */
+    private static final int[] MOVE_OF_ACCELERATION = {8, 1, 2, 7, 0, 3, 6, 5, 4};
+
+    /**
+     * The generator only has static methods.
+     */
+    private MoveGenerator() {
+    }
+
+    /**
+     * Returns the legal moves of the given player on the given board.
+     *
+     * @param board  the given board
+     * @param player the given player, it has to be placed
+     * @return mask of the legal moves
+     */
+    public static int legalMoves(Board board, Player player) {
+        Point position = player.getPosition();
+        Point speed = player.getSpeed();
+
+        return legalMoves(board, position.x(), position.y(), speed.x(), speed.y());
+    }
+
+    /**
+     * Returns the legal moves of a car at the given position with the given
+     * speed.
+     *
+     * @param board the given board
+     * @param x     x-axis value of the position
+     * @param y     y-axis value of the position
+     * @param vx    x-axis value of the speed
+     * @param vy    y-axis value of the speed
+     * @return mask of the legal moves
+     */
+    public static int legalMoves(Board board, int x, int y, int vx, int vy) {
+        int mask = 0;
+        for (int move = 0; move < MOVE_COUNT; move++) {
+            int toX = x + vx + ACCELERATION_X[move];
+            int toY = y + vy + ACCELERATION_Y[move];
+            boolean isOwnPosition = toX == x && toY == y;
+            if (isOwnPosition || (board.areValidCoords(toX, toY) && !board.isCar(toX, toY))) {
+                mask |= 1 << move;
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Checks whether the given move is in the given mask.
+     *
+     * @param mask the given mask
+     * @param move number of the move
+     * @return whether the move is in the mask
+     */
+    public static boolean isLegal(int mask, int move) {
+        return (mask & (1 << move)) != 0;
+    }
+
+    /**
+     * Writes the numbers of the moves of the given mask into the given
+     * buffer, in ascending order.
+     *
+     * @param mask   the given mask
+     * @param buffer the buffer, it needs space for {@link #MOVE_COUNT} moves
+     * @return number of the moves written into the buffer
+     */
+    public static int toMoves(int mask, int[] buffer) {
+        int count = 0;
+        for (int rest = mask & ALL_MOVES; rest != 0; rest &= rest - 1) {
+            buffer[count++] = Integer.numberOfTrailingZeros(rest);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the x-axis value of the destination of the given move.
+     *
+     * @param x    x-axis value of the position
+     * @param vx   x-axis value of the speed
+     * @param move number of the move
+     * @return x-axis value of the destination
+     */
+    public static int destinationX(int x, int vx, int move) {
+        return x + vx + ACCELERATION_X[move];
+    }
+
+    /**
+     * Returns the y-axis value of the destination of the given move.
+     *
+     * @param y    y-axis value of the position
+     * @param vy   y-axis value of the speed
+     * @param move number of the move
+     * @return y-axis value of the destination
+     */
+    public static int destinationY(int y, int vy, int move) {
+        return y + vy + ACCELERATION_Y[move];
+    }
+
+    /**
+     * Finds the move of a car at the given position with the given speed
+     * which ends on the given destination.
+     *
+     * @param x    x-axis value of the position
+     * @param y    y-axis value of the position
+     * @param vx   x-axis value of the speed
+     * @param vy   y-axis value of the speed
+     * @param toX  x-axis value of the destination
+     * @param toY  y-axis value of the destination
+     * @return number of the move or -1, if none of the moves ends on the
+     * destination
+     */
+    public static int findMove(int x, int y, int vx, int vy, int toX, int toY) {
+        int ax = toX - x - vx;
+        int ay = toY - y - vy;
+        if (ax < -1 || ax > 1 || ay < -1 || ay > 1) {
+            return -1;
+        }
+
+        return MOVE_OF_ACCELERATION[(ay + 1) * 3 + ax + 1];
+    }
+}
@@ -0,0 +1,397 @@
+package logic;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * History of the positions of a car, stored as the accelerations of its
+ * moves. Every regular move is one of the nine moves of
+ * {@link MoveGenerator} and is stored in four bits, two moves per byte. Only
+ * the positions which cannot be reached by a move, like the placement of the
+ * car, are stored as packed coordinates ({@link Point#pack(int, int)}).
+ * <p>
+ * The positions are rebuilt by replaying the moves from the first position,
+ * so the history is read one position after another by its iterator. The
+ * first and the last position are kept for direct access. The encoding
+ * of {@link #toBytes()} stores the codes and jumps as they are, so a saved
+ * history is restored without replaying the race.
+ *
+ * @author ite105705
+ */
+public final class MoveHistory implements Iterable<Point> {
+
+    /**
+     * Code of a position which is stored as packed coordinates, the speed
+     * is zero afterwards.
+     */
+    private static final int JUMP = 9;
+
+    /**
+     * Code of a crash, the speed is zero afterwards. It does not add a
+     * position.
+     */
+    private static final int CRASH = 10;
+
+    /**
+     * Number of the codes a new history has space for.
+     */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * The codes, two per byte, the first one in the lower four bits.
+     */
+    private byte[] codes;
+
+    /**
+     * Number of the stored codes.
+     */
+    private int codeCount;
+
+    /**
+     * Packed coordinates of the positions stored as jumps, in their order.
+     */
+    private long[] jumps;
+
+    /**
+     * Number of the stored jumps.
+     */
+    private int jumpCount;
+
+    /**
+     * Number of the positions of the history.
+     */
+    private int size;
+
+    /**
+     * The first position of the history.
+     */
+    private Point first;
+
+    /**
+     * The last position of the history.
+     */
+    private Point last;
+
+    /**
+     * x-axis value of the speed after the last code.
+     */
+    private int speedX;
+
+    /**
+     * y-axis value of the speed after the last code.
+     */
+    private int speedY;
+
+    /**
+     * Creates an empty history.
+     */
+    public MoveHistory() {
+        this.codes = new byte[INITIAL_CAPACITY / 2];
+        this.jumps = new long[1];
+    }
+
+    /**
+     * Returns the number of the positions of the history.
+     *
+     * @return number of the positions
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks whether the history has no positions.
+     *
+     * @return whether the history is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the first position of the history.
+     *
+     * @return the first position or null, if the history is empty
+     */
+    public Point getFirst() {
+        return this.first;
+    }
+
+    /**
+     * Returns the last position of the history.
+     *
+     * @return the last position or null, if the history is empty
+     */
+    public Point getLast() {
+        return this.last;
+    }
+
+    /**
+     * Adds the given position. It is stored as a move if it can be reached
+     * from the last position with the current speed, otherwise as a jump.
+     *
+     * @param point the given position
+     */
+    public void add(Point point) {
+        int move = this.last == null
+                ? -1
+                : MoveGenerator.findMove(this.last.x(), this.last.y(), this.speedX, this.speedY,
+                                         point.x(), point.y());
+        if (move < 0) {
+            this.addJump(point.x(), point.y());
+        } else {
+            this.addCode(move);
+            this.speedX += MoveGenerator.ACCELERATION_X[move];
+            this.speedY += MoveGenerator.ACCELERATION_Y[move];
+        }
+
+        if (this.first == null) {
+            this.first = point;
+        }
+        this.last = point;
+        this.size++;
+    }
+
+    /**
+     * Records a crash, the car stays on the last position and its speed
+     * is zero afterwards.
+     */
+    public void addCrash() {
+        if (this.speedX != 0 || this.speedY != 0) {
+            this.addCode(CRASH);
+            this.speedX = 0;
+            this.speedY = 0;
+        }
+    }
+
+    /**
+     * Encodes the history: the number of the codes and of the jumps as
+     * ints, followed by the codes, two per byte, and the packed
+     * coordinates of the jumps.
+     *
+     * @return the encoded history
+     */
+    public byte[] toBytes() {
+        int codeBytes = (this.codeCount + 1) >>> 1;
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + codeBytes + Long.BYTES * this.jumpCount);
+        buffer.putInt(this.codeCount);
+        buffer.putInt(this.jumpCount);
+        buffer.put(this.codes, 0, codeBytes);
+        for (int i = 0; i < this.jumpCount; i++) {
+            buffer.putLong(this.jumps[i]);
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a history encoded by {@link #toBytes()}. The positions, the
+     * speed and the first and last position are rebuilt from the codes.
+     *
+     * @param bytes the encoded history
+     * @return the decoded history
+     * @throws IllegalArgumentException if the bytes are no valid history
+     */
+    public static MoveHistory fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < 2 * Integer.BYTES) {
+            throw new IllegalArgumentException("The history is too short");
+        }
+        int codeCount = buffer.getInt();
+        int jumpCount = buffer.getInt();
+        if (codeCount < 0 || jumpCount < 0
+            || bytes.length != 2 * Integer.BYTES + ((codeCount + 1L) >>> 1) + (long) Long.BYTES * jumpCount) {
+            throw new IllegalArgumentException("The length of the history does not match its counts");
+        }
+
+        MoveHistory history = new MoveHistory();
+        history.codes = new byte[Math.max(1, (codeCount + 1) >>> 1)];
+        buffer.get(history.codes, 0, (codeCount + 1) >>> 1);
+        history.codeCount = codeCount;
+        history.jumps = new long[Math.max(1, jumpCount)];
+        for (int i = 0; i < jumpCount; i++) {
+            history.jumps[i] = buffer.getLong();
+        }
+        history.jumpCount = jumpCount;
+
+        int jumpIndex = 0;
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < codeCount; i++) {
+            int code = history.codeAt(i);
+            if (code == JUMP && jumpIndex < jumpCount) {
+                x = Point.unpackX(history.jumps[jumpIndex]);
+                y = Point.unpackY(history.jumps[jumpIndex++]);
+                history.speedX = 0;
+                history.speedY = 0;
+            } else if (code < MoveGenerator.MOVE_COUNT && history.size > 0) {
+                history.speedX += MoveGenerator.ACCELERATION_X[code];
+                history.speedY += MoveGenerator.ACCELERATION_Y[code];
+                x += history.speedX;
+                y += history.speedY;
+            } else if (code == CRASH && history.size > 0) {
+                history.speedX = 0;
+                history.speedY = 0;
+                continue;
+            } else {
+                throw new IllegalArgumentException("Invalid code " + code + " at " + i);
+            }
+
+            history.last = new Point(x, y);
+            if (history.first == null) {
+                history.first = history.last;
+            }
+            history.size++;
+        }
+        if (jumpIndex != jumpCount) {
+            throw new IllegalArgumentException("The history has more jumps than codes of jumps");
+        }
+
+        return history;
+    }
+
+    /**
+     * Returns an iterator which rebuilds the positions from the first to
+     * the last one.
+     *
+     * @return iterator over the positions
+     */
+    @Override
+    public Iterator<Point> iterator() {
+        return new PositionIterator();
+    }
+
+    /**
+     * Stores a position as a jump.
+     *
+     * @param x x-axis value of the position
+     * @param y y-axis value of the position
+     */
+    private void addJump(int x, int y) {
+        if (this.jumpCount == this.jumps.length) {
+            this.jumps = Arrays.copyOf(this.jumps, this.jumps.length * 2);
+        }
+        this.jumps[this.jumpCount++] = Point.pack(x, y);
+        this.addCode(JUMP);
+        this.speedX = 0;
+        this.speedY = 0;
+    }
+
+    /**
+     * Appends a code of four bits.
+     *
+     * @param code the code
+     */
+    private void addCode(int code) {
+        int byteIndex = this.codeCount >>> 1;
+        if (byteIndex == this.codes.length) {
+            this.codes = Arrays.copyOf(this.codes, this.codes.length * 2);
+        }
+        if ((this.codeCount & 1) == 0) {
+            this.codes[byteIndex] = (byte) code;
+        } else {
+            this.codes[byteIndex] |= (byte) (code << 4);
+        }
+        this.codeCount++;
+    }
+
+    /**
+     * Returns the code with the given index.
+     *
+     * @param index the index of the code
+     * @return the code
+     */
+    private int codeAt(int index) {
+        return (this.codes[index >>> 1] >>> ((index & 1) << 2)) & 0xF;
+    }
+
+    /**
+     * Replays the codes and returns the position after each of them, the
+     * crashes only change the speed.
+     */
+    private class PositionIterator implements Iterator<Point> {
+
+        /**
+         * Index of the next code.
+         */
+        private int codeIndex;
+
+        /**
+         * Index of the next jump.
+         */
+        private int jumpIndex;
+
+        /**
+         * Number of the positions returned so far.
+         */
+        private int returned;
+
+        /**
+         * x-axis value of the last returned position.
+         */
+        private int x;
+
+        /**
+         * y-axis value of the last returned position.
+         */
+        private int y;
+
+        /**
+         * x-axis value of the speed after the last code.
+         */
+        private int vx;
+
+        /**
+         * y-axis value of the speed after the last code.
+         */
+        private int vy;
+
+        /**
+         * Checks whether there are more positions.
+         *
+         * @return whether there are more positions
+         */
+        @Override
+        public boolean hasNext() {
+            return this.returned < MoveHistory.this.size;
+        }
+
+        /**
+         * Rebuilds the next position.
+         *
+         * @return the next position
+         */
+        @Override
+        public Point next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int code = MoveHistory.this.codeAt(this.codeIndex++);
+            while (code == CRASH) {
+                this.vx = 0;
+                this.vy = 0;
+                code = MoveHistory.this.codeAt(this.codeIndex++);
+            }
+
+            if (code == JUMP) {
+                long packed = MoveHistory.this.jumps[this.jumpIndex++];
+                this.x = Point.unpackX(packed);
+                this.y = Point.unpackY(packed);
+                this.vx = 0;
+                this.vy = 0;
+            } else {
+                this.vx += MoveGenerator.ACCELERATION_X[code];
+                this.vy += MoveGenerator.ACCELERATION_Y[code];
+                this.x += this.vx;
+                this.y += this.vy;
+            }
+
+            this.returned++;
+
+            return new Point(this.x, this.y);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package logic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of the turns of a race, so a race can be recovered
+ * after a crash without saving it after every turn. Every turn is one
+ * record of fixed size with the same content as an entry of
+ * {@link MoveLog}: the player, its decision and the position of its car
+ * afterwards, followed by a CRC32C checksum of the record.
+ * <p>
+ * The records are collected in a batch and written with one call to
+ * {@link FileChannel#force(boolean)} once the batch is full, so not every
+ * turn waits for the disk. A crash loses at most the turns of the last
+ * batch. {@link #read(Path)} stops at the first torn or corrupt record,
+ * and {@link #open(Path, int)} cuts them off before it appends. A journal
+ * is only rewritten through {@link #replace}, which never truncates the
+ * old records before the new ones are on the disk.
+ *
+ * @author ite105705
+ */
+public final class MoveJournal implements Closeable {
+
+    /**
+     * Size of a record in bytes: player, decision, x and y-axis value and
+     * the checksum, all of them as ints.
+     */
+    public static final int RECORD_SIZE = 5 * Integer.BYTES;
+
+    /**
+     * Number of the records written with one sync by default.
+     */
+    public static final int DEFAULT_SYNC_INTERVAL = 16;
+
+    /**
+     * Number of the records read at once.
+     */
+    private static final int READ_BATCH = 1024;
+
+    /**
+     * Extension of the temporary file of {@link #replace}.
+     */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**
+     * Magic number at the start of each journal, "RTMJ" in ASCII.
+     */
+    private static final int MAGIC = 0x52544D4A;
+
+    /**
+     * Version of the format which is written.
+     */
+    private static final short VERSION = 1;
+
+    /**
+     * Size of the header: magic number, version and record size.
+     */
+    private static final int HEADER_SIZE = Integer.BYTES + 2 * Short.BYTES;
+
+    /**
+     * Channel of the journal file, positioned at its end.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Records which are not written yet.
+     */
+    private final ByteBuffer batch;
+
+    /**
+     * Computes the checksums of the records.
+     */
+    private final CRC32C checksum = new CRC32C();
+
+    /**
+     * Creates a journal which appends to the given channel.
+     *
+     * @param channel      channel of the journal, positioned at its end
+     * @param syncInterval number of the records written with one sync
+     */
+    private MoveJournal(FileChannel channel, int syncInterval) {
+        this.channel = channel;
+        this.batch = ByteBuffer.allocateDirect(syncInterval * RECORD_SIZE);
+    }
+
+    /**
+     * Opens the given journal to append to it, a missing journal is
+     * created. The records after the first torn or corrupt one are cut off.
+     *
+     * @param path         path of the journal
+     * @param syncInterval number of the records written with one sync, 1
+     *                     syncs every record
+     * @return the opened journal
+     * @throws IOException              if the file cannot be opened or is
+     *                                  not a journal
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public static MoveJournal open(Path path, int syncInterval) throws IOException {
+        return open(path, syncInterval, false);
+    }
+
+    /**
+     * Creates an empty journal, an existing journal is replaced.
+     *
+     * @param path         path of the journal
+     * @param syncInterval number of the records written with one sync, 1
+     *                     syncs every record
+     * @return the created journal
+     * @throws IOException              if the file cannot be created
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public static MoveJournal create(Path path, int syncInterval) throws IOException {
+        return open(path, syncInterval, true);
+    }
+
+    /**
+     * Replaces the given journal by one with the entries of the given log
+     * from the given index on, and opens it to append to it. The records are
+     * written to a temporary file next to it and forced onto the disk, which
+     * is then moved over the journal. So a crash leaves either the old or
+     * the complete new journal.
+     *
+     * @param path         path of the journal
+     * @param log          the log of the turns
+     * @param from         index of the first entry of the log to write
+     * @param syncInterval number of the records written with one sync, 1
+     *                     syncs every record
+     * @return the opened journal
+     * @throws IOException              if the journal cannot be written
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public static MoveJournal replace(Path path, MoveLog log, int from, int syncInterval) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + TEMPORARY_EXTENSION);
+        try (MoveJournal journal = create(temporary, syncInterval)) {
+            for (int i = from; i < log.size(); i++) {
+                journal.append(log.getPlayer(i), log.getDecision(i), log.getX(i), log.getY(i));
+            }
+        }
+
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return open(path, syncInterval);
+    }
+
+    /**
+     * Opens the given journal to append to it.
+     *
+     * @param path         path of the journal
+     * @param syncInterval number of the records written with one sync
+     * @param empty        whether the records of an existing journal are
+     *                     removed
+     * @return the opened journal
+     * @throws IOException              if the file cannot be opened or is
+     *                                  not a journal
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    private static MoveJournal open(Path path, int syncInterval, boolean empty) throws IOException {
+        if (syncInterval < 1) {
+            throw new IllegalArgumentException("The sync interval has to be positive");
+        }
+
+        FileChannel channel = empty
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+        try {
+            long end;
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(false);
+                end = HEADER_SIZE;
+            } else {
+                end = HEADER_SIZE + (long) RECORD_SIZE * scan(channel, path, null);
+                channel.truncate(end);
+            }
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        return new MoveJournal(channel, syncInterval);
+    }
+
+    /**
+     * Reads the valid records of the given journal, in their order.
+     *
+     * @param path path of the journal
+     * @return a log with an entry for each valid record
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public static MoveLog read(Path path) throws IOException {
+        MoveLog log = new MoveLog();
+        if (Files.notExists(path)) {
+            return log;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            scan(channel, path, log);
+        }
+
+        return log;
+    }
+
+    /**
+     * Appends a record for the given turn. It is written to the file once
+     * the batch is full.
+     *
+     * @param player   index of the player in the race
+     * @param decision {@link MoveLog#PLACEMENT}, {@link MoveLog#NO_MOVE} or
+     *                 the number of the move
+     * @param x        x-axis value of the car afterwards
+     * @param y        y-axis value of the car afterwards
+     * @throws IOException if the batch cannot be written
+     */
+    public void append(int player, int decision, int x, int y) throws IOException {
+        int start = this.batch.position();
+        this.batch.putInt(player).putInt(decision).putInt(x).putInt(y);
+        this.checksum.reset();
+        this.checksum.update(this.batch.slice(start, RECORD_SIZE - Integer.BYTES));
+        this.batch.putInt((int) this.checksum.getValue());
+
+        if (!this.batch.hasRemaining()) {
+            this.sync();
+        }
+    }
+
+    /**
+     * Writes the records of the batch and forces them onto the disk.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    public void sync() throws IOException {
+        if (this.batch.position() == 0) {
+            return;
+        }
+
+        this.batch.flip();
+        while (this.batch.hasRemaining()) {
+            this.channel.write(this.batch);
+        }
+        this.batch.clear();
+        this.channel.force(false);
+    }
+
+    /**
+     * Writes the records of the batch and closes the journal.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.sync();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Checks the header of the given journal and counts its valid records,
+     * which end before the first torn or corrupt one.
+     *
+     * @param channel channel of the journal
+     * @param path    path of the journal, for the messages
+     * @param log     the log the records are added to or null
+     * @return number of the valid records
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    private static long scan(FileChannel channel, Path path, MoveLog log) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a move journal: " + path);
+        }
+        if (header.getShort() != VERSION || header.getShort() != RECORD_SIZE) {
+            throw new IOException("Unknown version of the move journal: " + path);
+        }
+
+        CRC32C checksum = new CRC32C();
+        ByteBuffer records = ByteBuffer.allocateDirect(READ_BATCH * RECORD_SIZE);
+        long position = HEADER_SIZE;
+        long count = 0;
+        while (true) {
+            records.clear();
+            int read = channel.read(records, position);
+            if (read < RECORD_SIZE) {
+                return count;
+            }
+            records.flip();
+            while (records.remaining() >= RECORD_SIZE) {
+                int start = records.position();
+                checksum.reset();
+                checksum.update(records.slice(start, RECORD_SIZE - Integer.BYTES));
+                int player = records.getInt();
+                int decision = records.getInt();
+                int x = records.getInt();
+                int y = records.getInt();
+                if (records.getInt() != (int) checksum.getValue() || player < 0
+                    || decision < MoveLog.PLACEMENT || decision >= MoveGenerator.MOVE_COUNT) {
+                    return count;
+                }
+
+                if (log != null) {
+                    log.add(player, decision, x, y);
+                }
+                count++;
+            }
+            position += records.position();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Log of all the turns of a race in their order. Every entry holds the
+ * player, its decision and the position of its car afterwards: a placement,
+ * one of the nine moves of {@link MoveGenerator} or no move at all, which
+ * stops the car like a crash.
+ * <p>
+ * The log keeps a digest of all its entries, a 64-bit FNV-1a hash which is
+ * updated with every entry. Two races with the same digest made the same
+ * decisions with the same results, so a race can be compared with a replay
+ * of its log by {@link RaceTrack#replay(MoveLog)} without storing both logs.
+ *
+ * @author ite105705
+ */
+public final class MoveLog {
+
+    /**
+     * Decision of a player who does not move, its car stops.
+     */
+    public static final int NO_MOVE = -1;
+
+    /**
+     * Decision of a player who places its car.
+     */
+    public static final int PLACEMENT = -2;
+
+    /**
+     * Initial value of the digest.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+    /**
+     * Multiplier of the digest.
+     */
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * Number of the entries a new log has space for.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Offset which makes the decisions non-negative, so they fit into the
+     * lower bits of an entry.
+     */
+    private static final int DECISION_OFFSET = 2;
+
+    /**
+     * Number of the bits of an entry which hold the decision.
+     */
+    private static final int DECISION_BITS = 4;
+
+    /**
+     * Player index and decision of each entry, the decision in the lower
+     * {@link #DECISION_BITS} bits.
+     */
+    private int[] decisions;
+
+    /**
+     * Packed position of the car after each entry, see
+     * {@link Point#pack(int, int)}.
+     */
+    private long[] positions;
+
+    /**
+     * Number of the entries.
+     */
+    private int size;
+
+    /**
+     * Digest of all the entries.
+     */
+    private long digest;
+
+    /**
+     * Creates an empty log.
+     */
+    public MoveLog() {
+        this.decisions = new int[INITIAL_CAPACITY];
+        this.positions = new long[INITIAL_CAPACITY];
+        this.digest = FNV_OFFSET_BASIS;
+    }
+
+    /**
+     * Adds an entry to the log.
+     *
+     * @param player   index of the player in the race
+     * @param decision {@link #PLACEMENT}, {@link #NO_MOVE} or the number of
+     *                 the move
+     * @param x        x-axis value of the car afterwards
+     * @param y        y-axis value of the car afterwards
+     * @throws IllegalArgumentException if the decision is unknown
+     */
+    public void add(int player, int decision, int x, int y) {
+        if (decision < PLACEMENT || decision >= MoveGenerator.MOVE_COUNT) {
+            throw new IllegalArgumentException("Unknown decision: " + decision);
+        }
+
+        if (this.size == this.decisions.length) {
+            this.decisions = Arrays.copyOf(this.decisions, this.size * 2);
+            this.positions = Arrays.copyOf(this.positions, this.size * 2);
+        }
+        this.decisions[this.size] = player << DECISION_BITS | (decision + DECISION_OFFSET);
+        this.positions[this.size] = Point.pack(x, y);
+        this.size++;
+
+        this.digest = mix(this.digest, player);
+        this.digest = mix(this.digest, decision);
+        this.digest = mix(this.digest, x);
+        this.digest = mix(this.digest, y);
+    }
+
+    /**
+     * Returns the number of the entries.
+     *
+     * @return number of the entries
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the player of the given entry.
+     *
+     * @param index index of the entry
+     * @return index of the player in the race
+     */
+    public int getPlayer(int index) {
+        return this.decisions[index] >>> DECISION_BITS;
+    }
+
+    /**
+     * Returns the decision of the given entry.
+     *
+     * @param index index of the entry
+     * @return {@link #PLACEMENT}, {@link #NO_MOVE} or the number of the move
+     */
+    public int getDecision(int index) {
+        return (this.decisions[index] & ((1 << DECISION_BITS) - 1)) - DECISION_OFFSET;
+    }
+
+    /**
+     * Returns the x-axis value of the car after the given entry.
+     *
+     * @param index index of the entry
+     * @return x-axis value of the position
+     */
+    public int getX(int index) {
+        return Point.unpackX(this.positions[index]);
+    }
+
+    /**
+     * Returns the y-axis value of the car after the given entry.
+     *
+     * @param index index of the entry
+     * @return y-axis value of the position
+     */
+    public int getY(int index) {
+        return Point.unpackY(this.positions[index]);
+    }
+
+    /**
+     * Returns the digest of all the entries.
+     *
+     * @return the digest
+     */
+    public long getDigest() {
+        return this.digest;
+    }
+
+    /**
+     * Adds the four bytes of the given value to the given hash.
+     *
+     * @param hash  the given hash
+     * @param value the given value
+     * @return the new hash
+     */
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,224 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Index of the cells which are occupied by cars, kept apart from the states
+ * of the board, so moving cars never changes the track. It maps the packed
+ * coordinates of a cell ({@link Point#pack(int, int)}) to the index of the
+ * player whose car is on it.
+ * <p>
+ * The index is a hash table with open addressing and linear probing over
+ * primitive arrays, so a query needs neither boxing nor a scan of the cars.
+ * The table is at most half full and grows by doubling. Removed entries are
+ * not marked as deleted, the following entries of the probe sequence are
+ * shifted back instead, so lookups stay short however often the cars move.
+ *
+ * @author ite105705
+ */
+public final class OccupancyIndex {
+
+    /**
+     * Player index of the cells without a car, also marks the empty slots.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Capacity of a new index, it has to be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Multiplier which spreads the packed coordinates over the table.
+     */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Packed coordinates of the occupied cells.
+     */
+    private long[] keys;
+
+    /**
+     * Player index of each slot or {@link #NONE} for an empty slot.
+     */
+    private int[] players;
+
+    /**
+     * Number of the occupied cells.
+     */
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    public OccupancyIndex() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.players = new int[INITIAL_CAPACITY];
+        Arrays.fill(this.players, NONE);
+    }
+
+    /**
+     * Creates a copy of the given index.
+     *
+     * @param index the index to copy
+     */
+    public OccupancyIndex(OccupancyIndex index) {
+        this.keys = index.keys.clone();
+        this.players = index.players.clone();
+        this.size = index.size;
+    }
+
+    /**
+     * Returns the number of the occupied cells.
+     *
+     * @return number of the cars in the index
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the player whose car is on the given cell.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return index of the player or {@link #NONE} if the cell is free
+     */
+    public int get(int x, int y) {
+        long key = Point.pack(x, y);
+        int mask = this.keys.length - 1;
+        for (int slot = this.slotOf(key); this.players[slot] != NONE; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == key) {
+                return this.players[slot];
+            }
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Checks whether a car is on the given cell.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return whether the cell is occupied
+     */
+    public boolean contains(int x, int y) {
+        return this.get(x, y) != NONE;
+    }
+
+    /**
+     * Puts the car of the given player on the given cell, a car which was on
+     * the cell before is replaced.
+     *
+     * @param x      x-axis value of the cell
+     * @param y      y-axis value of the cell
+     * @param player index of the player, it must not be negative
+     * @return index of the player whose car was on the cell before or
+     * {@link #NONE}
+     */
+    public int put(int x, int y, int player) {
+        if (player < 0) {
+            throw new IllegalArgumentException("The index of a player must not be negative");
+        }
+
+        long key = Point.pack(x, y);
+        int mask = this.keys.length - 1;
+        int slot = this.slotOf(key);
+        while (this.players[slot] != NONE) {
+            if (this.keys[slot] == key) {
+                int previous = this.players[slot];
+                this.players[slot] = player;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        this.keys[slot] = key;
+        this.players[slot] = player;
+        this.size++;
+        if (2 * this.size > this.keys.length) {
+            this.grow();
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Removes the car from the given cell.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return index of the player whose car was on the cell or {@link #NONE}
+     */
+    public int remove(int x, int y) {
+        long key = Point.pack(x, y);
+        int mask = this.keys.length - 1;
+        int slot = this.slotOf(key);
+        while (this.players[slot] != NONE && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (this.players[slot] == NONE) {
+            return NONE;
+        }
+
+        int removed = this.players[slot];
+        this.size--;
+        // Shifts the following entries back, so no probe sequence is interrupted
+        int gap = slot;
+        for (int next = (gap + 1) & mask; this.players[next] != NONE; next = (next + 1) & mask) {
+            int home = this.slotOf(this.keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                this.keys[gap] = this.keys[next];
+                this.players[gap] = this.players[next];
+                gap = next;
+            }
+        }
+        this.players[gap] = NONE;
+
+        return removed;
+    }
+
+    /**
+     * Removes all the cars.
+     */
+    public void clear() {
+        Arrays.fill(this.players, NONE);
+        this.size = 0;
+    }
+
+    /**
+     * Returns the home slot of the given key.
+     *
+     * @param key packed coordinates of a cell
+     * @return index of the slot
+     */
+    private int slotOf(long key) {
+        int bits = Integer.numberOfTrailingZeros(this.keys.length);
+
+        return (int) ((key * HASH_MULTIPLIER) >>> (64 - bits));
+    }
+
+    /**
+     * Doubles the capacity of the table and inserts all the entries again.
+     */
+    private void grow() {
+        long[] oldKeys = this.keys;
+        int[] oldPlayers = this.players;
+        this.keys = new long[oldKeys.length * 2];
+        this.players = new int[oldKeys.length * 2];
+        Arrays.fill(this.players, NONE);
+
+        int mask = this.keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldPlayers[i] != NONE) {
+                int slot = this.slotOf(oldKeys[i]);
+                while (this.players[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.players[slot] = oldPlayers[i];
+            }
+        }
+    }
+}
@@ -41,6 +41,13 @@ public class Player {
      */
     private int crossedLine;
 
+    /**
+     * The number of times that the player has crashed,
+     * either into the gravel or because it had no
+     * possible move.
+     */
+    private int crashCount;
+
     /**
      * Index of the player between other players of the
      * game.
@@ -54,10 +61,10 @@ public class Player {
     private boolean isPlaced;
 
     /**
-     * An array which holds the track of all the moves of
-     * the player by keeping the points of the moves.
+     * The history which holds the track of all the moves
+     * of the player, the placement included.
      */
-    private final ArrayList<Point> moves;
+    private MoveHistory moves;
 
     /**
      * The flag which shows whether the player has
@@ -65,6 +72,19 @@ public class Player {
      */
     private boolean isWinner;
 
+    /**
+     * Number of the crossings of the start/finish line in its direction
+     * minus the crossings against it. A car which starts behind the line
+     * begins with -1, so it has to reach the line before its first lap.
+     */
+    private int lineBalance;
+
+    /**
+     * Index of the checkpoint the player has to cross next in its current
+     * lap.
+     */
+    private int nextCheckpoint;
+
     private MovementDirection movementDirection;
 
     /**
@@ -78,7 +98,7 @@ public class Player {
         this.name = name;
         this.status = status;
         this.index = index;
-        this.moves = new ArrayList<>();
+        this.moves = new MoveHistory();
         this.speed = new Point(0, 0);
     }
 
@@ -92,7 +112,7 @@ public class Player {
     Player(Point speed) {
         this.name = "";
         this.status = PlayerStatus.AI;
-        this.moves = new ArrayList<>();
+        this.moves = new MoveHistory();
         this.speed = speed;
     }
 
@@ -176,11 +196,56 @@ public class Player {
 
     /**
      * Setter of the player's number of crossing of the line.
+     * The balance of the crossings is set to the same value
+     * and the checkpoints of the lap start again.
      *
      * @param crossedLine the given input
      */
     public void setCrossedLine(int crossedLine) {
         this.crossedLine = crossedLine;
+        this.lineBalance = crossedLine;
+        this.nextCheckpoint = 0;
+    }
+
+    /**
+     * Getter of the balance of the player's crossings of the
+     * start/finish line, the crossings against the direction
+     * of the line are subtracted.
+     *
+     * @return balance of the crossings
+     */
+    public int getLineBalance() {
+        return this.lineBalance;
+    }
+
+    /**
+     * Setter of the balance of the player's crossings of the
+     * start/finish line.
+     *
+     * @param lineBalance the given balance
+     */
+    public void setLineBalance(int lineBalance) {
+        this.lineBalance = lineBalance;
+    }
+
+    /**
+     * Getter of the index of the checkpoint the player has
+     * to cross next.
+     *
+     * @return index of the next checkpoint
+     */
+    public int getNextCheckpoint() {
+        return this.nextCheckpoint;
+    }
+
+    /**
+     * Setter of the index of the checkpoint the player has
+     * to cross next.
+     *
+     * @param nextCheckpoint index of the next checkpoint
+     */
+    public void setNextCheckpoint(int nextCheckpoint) {
+        this.nextCheckpoint = nextCheckpoint;
     }
 
     /**
@@ -216,10 +281,49 @@ public class Player {
      *
      * @return player's moves
      */
-    public ArrayList<Point> getMoves() {
+    public MoveHistory getMoves() {
         return this.moves;
     }
 
+    /**
+     * Setter method of the player's moves, for a player whose
+     * race is restored from a save.
+     *
+     * @param moves the restored history
+     */
+    void setMoves(MoveHistory moves) {
+        this.moves = moves;
+    }
+
+    /**
+     * Setter of the player's speed, for a player whose race
+     * is restored from a save.
+     *
+     * @param speed the restored speed
+     */
+    void setSpeed(Point speed) {
+        this.speed = speed;
+    }
+
+    /**
+     * Getter method of the number of the player's crashes.
+     *
+     * @return number of times the player has crashed
+     */
+    public int getCrashCount() {
+        return this.crashCount;
+    }
+
+    /**
+     * Setter method of the number of the player's crashes, for
+     * a player whose race is restored from a save.
+     *
+     * @param crashCount the restored number of crashes
+     */
+    void setCrashCount(int crashCount) {
+        this.crashCount = crashCount;
+    }
+
     /**
      * Adds a move to the list of the player's moves.
      *
@@ -339,8 +443,9 @@ public class Player {
      * player's speed to zero.
      */
     public void updatePositionOnCrash() {
-        int lastMoveIndex = this.moves.size() - 1;
-        this.position = this.moves.get(lastMoveIndex);
+        this.crashCount++;
+        this.moves.addCrash();
+        this.position = this.moves.getLast();
         this.lastPosition = this.position;
         this.speed = new Point(0, 0);
     }
@@ -348,14 +453,14 @@ public class Player {
     /**
      * Checks whether the player is active or not.
      * An active player is a player who has not
-     * crossed the start/finish line more than one
-     * time.
+     * completed all the laps of the race yet.
      *
-     * @return whether the player has not crossed
-     * the start/finish line more than one time
+     * @param lapCount number of the laps of the race
+     * @return whether the player has completed less
+     * laps than the given number
      */
-    public boolean isActive() {
-        return this.crossedLine < 1;
+    public boolean isActive(int lapCount) {
+        return this.crossedLine < lapCount;
     }
 
     /**
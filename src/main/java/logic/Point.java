@@ -2,12 +2,21 @@ package logic;
 
 /**
  * Logic of the point which can be used to represent
- * players and cells positions.
+ * players and cells positions. Code which handles many
+ * positions can pack the coordinates of a point into a
+ * single long with {@link #pack(int, int)} instead of
+ * creating points.
  *
  * @author ite105705
  */
 public class Point {
 
+    /**
+     * Mask of the lower 32 bits of a packed point, which
+     * hold the y-axis value.
+     */
+    private static final long LOWER_BITS = 0xFFFFFFFFL;
+
     private final int x;
 
     private final int y;
@@ -62,6 +71,59 @@ public class Point {
         return y;
     }
 
+    /**
+     * Packs the given coordinates into a single long, the
+     * x-axis value in the upper and the y-axis value in the
+     * lower 32 bits. Equal coordinates give equal values.
+     *
+     * @param x x-axis value
+     * @param y y-axis value
+     * @return the packed coordinates
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & LOWER_BITS);
+    }
+
+    /**
+     * Returns the x-axis value of the given packed coordinates.
+     *
+     * @param packed the packed coordinates
+     * @return x-axis value
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Returns the y-axis value of the given packed coordinates.
+     *
+     * @param packed the packed coordinates
+     * @return y-axis value
+     */
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Creates a point of the given packed coordinates.
+     *
+     * @param packed the packed coordinates
+     * @return the point
+     */
+    public static Point unpack(long packed) {
+        return new Point(unpackX(packed), unpackY(packed));
+    }
+
+    /**
+     * Packs the coordinates of the point into a single long.
+     *
+     * @return the packed coordinates
+     * @see #pack(int, int)
+     */
+    public long pack() {
+        return pack(this.x, this.y);
+    }
+
     /**
      * Getter of the layoutX value of the point.
      *
@@ -92,16 +154,27 @@ public class Point {
 
     /**
      * Determines if two positions are equal. Two positions are equal if the
-     * respective coordinates are equal.
+     * respective coordinates are equal, a principal point is equal to a point
+     * with the same coordinates and the other way round. The layout values
+     * are not compared.
      *
      * @param obj object to compare with (usually a position)
      * @return true, if both objects are equal
      */
     @Override
     public boolean equals(Object obj) {
-        return (obj != null) &&
-               (this.getClass().equals(obj.getClass()) || (obj instanceof PrincipalPoint)) &&
-               (this.x() == ((Point) obj).x() && this.y() == ((Point) obj).y());
+        return obj instanceof Point other && this.x == other.x && this.y == other.y;
+    }
+
+    /**
+     * Returns the hash code of the coordinates, so equal positions can be
+     * used as keys of hash maps.
+     *
+     * @return hash code of the point
+     */
+    @Override
+    public int hashCode() {
+        return 31 * this.x + this.y;
     }
 
     public static double calculateDistance(Point p1, Point p2) {
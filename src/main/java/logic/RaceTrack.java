@@ -1,13 +1,12 @@
 package logic;
 
-import com.google.gson.*;
 import gui.JavaFxGUI;
-import logic.list.PathList;
+import logic.list.PathArray;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.SplittableRandom;
 
 /**
  * Logic of the game Racetrack
@@ -31,6 +30,12 @@ public class RaceTrack {
      */
     private final GUIConnector gui;
 
+    /**
+     * Whether the race is simulated without a gui. The turns of a headless
+     * race are only played by {@link #step()} and {@link #runRace(int)}.
+     */
+    private final boolean isHeadless;
+
     /**
      * Sets whether the game has started or not.
      */
@@ -51,6 +56,12 @@ public class RaceTrack {
      */
     private int currentPlayerIndex;
 
+    /**
+     * Index of the next cell of the track which is checked when an AI player
+     * is placed, so placing many cars does not scan the track again and again.
+     */
+    private int placementCursor;
+
     /**
      * Flag to check whether one player has crossed the
      * start/finish line two times.
@@ -63,6 +74,53 @@ public class RaceTrack {
      */
     private List<Integer> winners;
 
+    /**
+     * Number of the laps a player has to complete to finish the race.
+     */
+    private int lapCount = 1;
+
+    /**
+     * Lines which have to be crossed in their order in every lap before
+     * the start/finish line counts.
+     */
+    private List<TrackLine> checkpoints = List.of();
+
+    /**
+     * Breaks the ties between equally good moves of the AI players in the
+     * deterministic mode, otherwise it is null and the first of the moves
+     * is taken.
+     */
+    private SplittableRandom random;
+
+    /**
+     * Log of all the placements and moves of the race.
+     */
+    private final MoveLog moveLog = new MoveLog();
+
+    /**
+     * Log which is replayed instead of the decisions of the AI players, or
+     * null if the race is not a replay.
+     */
+    private MoveLog replayLog;
+
+    /**
+     * Index of the first entry of the replayed log which does not match the
+     * race or -1.
+     */
+    private int replayMismatch = -1;
+
+    /**
+     * Journal every turn is appended to, or null if the race has none.
+     */
+    private MoveJournal journal;
+
+    /**
+     * Plans the moves of the AI players, it is created on the first move
+     * of an AI player because the track cannot change anymore afterwards.
+     * Headless races on the same track can share it.
+     */
+    private RacingLineSolver racingLineSolver;
+
     /**
      * Maximum number of the game.
      */
@@ -92,6 +150,7 @@ public class RaceTrack {
      */
     public RaceTrack(GUIConnector gui, int colCount, int rowCount) {
         this.gui = gui;
+        this.isHeadless = false;
         this.board = new Board(colCount, rowCount);
         this.currentPlayerIndex = 0;
     }
@@ -105,6 +164,7 @@ public class RaceTrack {
      */
     public RaceTrack(GUIConnector gui, Board board, BoardUpdate boardUpdate) {
         this.gui = gui;
+        this.isHeadless = false;
         this.currentPlayerIndex = 0;
         this.board = board;
 
@@ -130,10 +190,42 @@ public class RaceTrack {
      */
     public RaceTrack(GUIConnector gui, Board board, Player[] players) {
         this.gui = gui;
+        this.isHeadless = false;
+        this.board = board;
+        this.currentPlayerIndex = 0;
+        this.players = players;
+        this.winners = new ArrayList<>();
+    }
+
+    /**
+     * Creates a headless race of AI players, which needs no gui. The turns
+     * are played one after another by {@link #step()} or all at once by
+     * {@link #runRace(int)}. In contrast to a race with a gui any number of
+     * players can take part, as long as their cars fit on the track.
+     *
+     * @param board            board of the race, the cars are placed on it
+     * @param players          players of the race, all of them have to be AI
+     *                         players
+     * @param racingLineSolver solver of the track of the board, it can be
+     *                         shared by all races on boards with the same
+     *                         track or null, if the race creates its own one
+     * @throws IllegalArgumentException if one of the players is not an AI
+     *                                  player
+     */
+    public RaceTrack(Board board, Player[] players, RacingLineSolver racingLineSolver) {
+        for (Player player : players) {
+            if (!player.isAI()) {
+                throw new IllegalArgumentException("A headless race can only be run by AI players");
+            }
+        }
+
+        this.gui = HeadlessGUI.INSTANCE;
+        this.isHeadless = true;
         this.board = board;
         this.currentPlayerIndex = 0;
         this.players = players;
         this.winners = new ArrayList<>();
+        this.racingLineSolver = racingLineSolver;
     }
 
     /**
@@ -181,6 +273,169 @@ public class RaceTrack {
         return players;
     }
 
+    /**
+     * Getter method of the number of the laps of the race.
+     *
+     * @return number of the laps
+     */
+    public int getLapCount() {
+        return this.lapCount;
+    }
+
+    /**
+     * Setter method of the number of the laps of the race.
+     *
+     * @param lapCount the given number of the laps
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public void setLapCount(int lapCount) {
+        if (lapCount < 1) {
+            throw new IllegalArgumentException("A race needs at least one lap");
+        }
+
+        this.lapCount = lapCount;
+    }
+
+    /**
+     * Getter method of the checkpoints of the race.
+     *
+     * @return the checkpoints in the order they have to be crossed
+     */
+    public List<TrackLine> getCheckpoints() {
+        return this.checkpoints;
+    }
+
+    /**
+     * Setter method of the checkpoints of the race. Each of them has to be
+     * crossed in its direction and in the given order, before crossing the
+     * start/finish line completes a lap.
+     *
+     * @param checkpoints the checkpoints in their order
+     */
+    public void setCheckpoints(List<TrackLine> checkpoints) {
+        this.checkpoints = List.copyOf(checkpoints);
+    }
+
+    /**
+     * Turns on the deterministic mode, in which the AI players break the
+     * ties between equally good moves with a random generator of the given
+     * seed. Two races with the same seed, board and players make the same
+     * moves, so they have the same digest.
+     *
+     * @param seed the given seed
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Getter method of the log of all the placements and moves of the race.
+     *
+     * @return the log
+     */
+    public MoveLog getMoveLog() {
+        return this.moveLog;
+    }
+
+    /**
+     * Replays the given log on this headless race instead of letting the AI
+     * players decide. Every placement and move of the log has to be allowed,
+     * and the cars have to end on the logged positions, so the log of another
+     * implementation of the game can be checked against this one. The race
+     * has to be set up like the logged one and must not be started yet.
+     *
+     * @param log the log to replay
+     * @return -1 if the whole log matches the replay, otherwise the index of
+     * the first entry which does not match
+     * @throws IllegalStateException if the race is not headless or the track
+     *                               of the board is not closed
+     */
+    public int replay(MoveLog log) {
+        if (!this.isHeadless) {
+            throw new IllegalStateException("Only a headless race can be replayed");
+        }
+
+        if (!this.gameStarted && !this.board.hasValidPath()) {
+            throw new IllegalStateException("The track of the board is not closed");
+        }
+
+        this.applyLog(log);
+        if (this.replayMismatch >= 0) {
+            return this.replayMismatch;
+        } else if (this.moveLog.size() != log.size()) {
+            return Math.min(this.moveLog.size(), log.size());
+        }
+
+        return this.moveLog.getDigest() == log.getDigest() ? -1 : log.size();
+    }
+
+    /**
+     * Sets the journal every following turn of the race is appended to,
+     * the replayed and recovered turns included.
+     *
+     * @param journal the journal or null, if the turns are not journaled
+     */
+    public void setJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Recovers the race by replaying the given journal, for example after
+     * a crash. The race has to be set up like the journaled one at its
+     * first record, it can be a new or a resumed race. Unlike
+     * {@link #replay(MoveLog)} the turns of all the players are replayed,
+     * not only those of the AI players. The race goes on after the last
+     * record that can be applied. The recovered turns are appended to the
+     * journal of the race, so the race can be recovered from a new journal
+     * which does not hold the records that did not match.
+     *
+     * @param log the records of the journal, see {@link MoveJournal#read}
+     * @return -1 if all the records are applied, otherwise the index of the
+     * first record which does not match the race
+     */
+    public int recover(MoveLog log) {
+        this.applyLog(log);
+        int mismatch = this.replayMismatch < log.size() ? this.replayMismatch : -1;
+        this.replayMismatch = -1;
+        this.syncJournal();
+
+        if (!this.gameEnded) {
+            if (!this.playersSetOnTrack) {
+                this.placeAIPlayerOnBoard();
+            } else if (!this.isHeadless) {
+                this.showFinishingPosition(this.getCurrentPlayer());
+                this.playAITurns();
+            }
+        }
+
+        return mismatch;
+    }
+
+    /**
+     * Applies the entries of the given log to the race, the placements and
+     * moves of every player are taken from the log. A race which is not
+     * started yet is started or resumed first. Stops at the first entry
+     * which does not match, its index is kept in {@link #replayMismatch}.
+     *
+     * @param log the log to apply
+     */
+    private void applyLog(MoveLog log) {
+        this.replayLog = log;
+        this.replayMismatch = -1;
+        if (!this.gameStarted) {
+            this.resumeGame();
+        }
+        while (this.gameStarted && this.replayMismatch < 0 && !this.gameEnded
+               && this.moveLog.size() < log.size()) {
+            if (this.playersSetOnTrack) {
+                this.moveAI();
+            } else {
+                this.placeReplayedPlayer();
+            }
+        }
+        this.replayLog = null;
+    }
+
     /**
      * Returns the current player of the game.
      *
@@ -190,6 +445,16 @@ public class RaceTrack {
         return this.players[this.currentPlayerIndex];
     }
 
+    /**
+     * Getter method of the racetrack current player
+     * index.
+     *
+     * @return index of the current player
+     */
+    public int getCurrentPlayerIndex() {
+        return this.currentPlayerIndex;
+    }
+
     /**
      * Setter method of the racetrack current player
      * index.
@@ -212,6 +477,7 @@ public class RaceTrack {
             if (this.board.isTrack(point)) {
                 this.gui.turnIntoTrack(point);
             }
+            this.updateTrackClosedIndicator();
         }
     }
 
@@ -227,6 +493,7 @@ public class RaceTrack {
             if (this.board.isGravel(point)) {
                 this.gui.turnIntoGravel(point);
             }
+            this.updateTrackClosedIndicator();
         }
     }
 
@@ -240,6 +507,7 @@ public class RaceTrack {
         if (!this.gameEnded) {
             this.board.turnIntoLine(point);
             this.gui.drawLine(this.board.getStartAndFinishLine());
+            this.updateTrackClosedIndicator();
         }
     }
 
@@ -248,7 +516,17 @@ public class RaceTrack {
      */
     public void reverseLine() {
         this.gui.reverseLine(this.board.getStartAndFinishLine());
-        this.board.getStartAndFinishLine().toggleDirection();
+        this.board.reverseLine();
+        this.updateTrackClosedIndicator();
+    }
+
+    /**
+     * Shows whether the track is closed while it is edited.
+     */
+    public void updateTrackClosedIndicator() {
+        if (!this.gameStarted) {
+            this.gui.updateTrackClosedLabel(this.board.isTrackClosed());
+        }
     }
 
     /**
@@ -257,72 +535,19 @@ public class RaceTrack {
      * @return string
      */
     public String save() {
-        int[][] cells = new int[this.board.getCells().length][this.board.getCells()[0].length];
-        for (int row = 0; row < this.board.getCells().length; row++) {
-            for (int col = 0; col < this.board.getCells()[row].length; col++) {
-                cells[col][row] = Integer.parseInt(this.board.getCells()[row][col].toString());
-            }
-        }
-
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        HashMap<String, Object> data = new HashMap<>();
-        data.put("track", cells);
-        data.put("direction", Integer.parseInt(this.board.getStartAndFinishLine().toString()));
-        JsonObject[] playersData = new JsonObject[MAX_PLAYERS_NUMBER];
-        int numOfActivePlayers;
-        for (numOfActivePlayers = 0;
-             this.players != null && numOfActivePlayers < this.players.length; numOfActivePlayers++
-        ) {
-            boolean isActive;
-            isActive = Objects.requireNonNull(this.players[numOfActivePlayers].getStatus()) == PlayerStatus.INACTIVE;
-
-            boolean isAI;
-            isAI = Objects.requireNonNull(this.players[numOfActivePlayers].getStatus()) == PlayerStatus.AI;
-
-            JsonObject result = new JsonObject();
-            result.add("active", new JsonPrimitive(isActive));
-            result.add("name", new JsonPrimitive(this.players[numOfActivePlayers].getName()));
-            result.add("ai", new JsonPrimitive(isAI));
-
-            JsonArray positionArray = new JsonArray(2);
-            positionArray.add(this.players[numOfActivePlayers].getPosition().x());
-            positionArray.add(this.players[numOfActivePlayers].getPosition().y());
-            result.add("current", positionArray);
-
-            JsonArray lastPositionArray = new JsonArray(2);
-            lastPositionArray.add(this.players[numOfActivePlayers].getLastPosition().x());
-            lastPositionArray.add(this.players[numOfActivePlayers].getLastPosition().y());
-            result.add("last", positionArray);
-            result.add("lap", new JsonPrimitive(this.players[numOfActivePlayers].getCrossedLine()));
-
-            playersData[numOfActivePlayers] = result;
-        }
-
-        while (numOfActivePlayers != MAX_PLAYERS_NUMBER) {
-            JsonObject result = new JsonObject();
-            result.add("active", new JsonPrimitive(false));
-            result.add("name", new JsonPrimitive(""));
-            result.add("ai", new JsonPrimitive(false));
-
-            JsonArray positionArray = new JsonArray(2);
-            positionArray.add(0);
-            positionArray.add(0);
-            result.add("current", positionArray);
-
-            JsonArray lastPositionArray = new JsonArray(2);
-            lastPositionArray.add(0);
-            lastPositionArray.add(0);
-            result.add("last", positionArray);
-            result.add("lap", new JsonPrimitive(0));
-
-            playersData[numOfActivePlayers] = result;
-            numOfActivePlayers++;
-        }
-
-        data.put("player", playersData);
-        data.put("currentPlayer", this.currentPlayerIndex);
+        return this.createWriter().toJson(false);
+    }
 
-        return gson.toJson(data);
+    /**
+     * Creates a writer with a snapshot of the current racetrack, which
+     * streams it in the format of {@link #save()}. Taking the snapshot
+     * does not depend on the size of the board, so the writer can be
+     * created on the gui thread and write on another one.
+     *
+     * @return the writer
+     */
+    public RaceWriter createWriter() {
+        return new RaceWriter(this, MAX_PLAYERS_NUMBER);
     }
 
     /**
@@ -358,6 +583,49 @@ public class RaceTrack {
         return this.playersSetOnTrack;
     }
 
+    /**
+     * Returns the players who have completed all the laps so far.
+     *
+     * @return indexes of the players in the order of their finish
+     */
+    List<Integer> getWinners() {
+        return this.winners == null ? List.of() : List.copyOf(this.winners);
+    }
+
+    /**
+     * Restores the progress of a saved race, the players are already
+     * restored with their positions and histories.
+     *
+     * @param placementEnded whether all the cars were placed
+     * @param winners        indexes of the players who have completed all
+     *                       the laps
+     */
+    void restore(boolean placementEnded, List<Integer> winners) {
+        this.playersSetOnTrack = placementEnded;
+        this.winners = new ArrayList<>(winners);
+        this.firstPlayerWon = !winners.isEmpty();
+    }
+
+    /**
+     * Continues a restored race. If all the cars were placed, the game goes
+     * on with the turn of the current player, otherwise the placement of
+     * the cars is continued like in {@link #startGame()}.
+     */
+    public void resumeGame() {
+        if (!this.playersSetOnTrack || !this.board.hasValidPath()) {
+            this.startGame();
+            return;
+        }
+
+        this.board.getTrack();
+        this.gameStarted = true;
+        if (!this.isHeadless) {
+            this.gui.updatePlayersInfoLabel(this.players, this.currentPlayerIndex);
+            this.showFinishingPosition(this.getCurrentPlayer());
+            this.playAITurns();
+        }
+    }
+
     /**
      * Sets the started flag to true if there is
      * a valid path on the board and shows an appropriate
@@ -365,6 +633,8 @@ public class RaceTrack {
      */
     public void startGame() {
         if (this.board.hasValidPath()) {
+            // The track is searched before the cars block any of its cells
+            this.board.getTrack();
             this.gameStarted = true;
             this.gui.showMessage(JavaFxGUI.BOARD_PREPARATION_TITLE, JavaFxGUI.BOARD_CARS_PLACEMENT_MESSAGE);
             this.placeAIPlayerOnBoard();
@@ -374,25 +644,31 @@ public class RaceTrack {
     }
 
     /**
-     * Places AI player on the board.
+     * Places the AI players on the board one after another,
+     * until a user has to place a car or all cars are placed.
      */
     private void placeAIPlayerOnBoard() {
-        Player currentPlayer = this.getCurrentPlayer();
-        if (currentPlayer.isAI() && !currentPlayer.isPlaced()) {
+        while (!this.playersSetOnTrack && this.getCurrentPlayer().isAI() && !this.getCurrentPlayer().isPlaced()
+               && this.replayMismatch < 0) {
+            if (this.replayLog != null) {
+                this.placeReplayedPlayer();
+                continue;
+            }
+
             Point point = null;
-            PathList track = this.board.getTrack();
+            PathArray track = this.board.getTrack();
             int size = track.size();
-            for (int i = 0; i < size && point == null; i++) {
-                Cell cell = track.getAt(i);
+            // The cells before the cursor are taken already, cars are only added while placing
+            for (; this.placementCursor < size && point == null; this.placementCursor++) {
+                Cell cell = track.getAt(this.placementCursor);
 
-                if (cell.isTrack()) {
+                if (cell.isTrack() && !this.board.isCar(cell.getPosition())) {
                     point = cell.getPosition();
                 }
             }
 
             this.setPlayerPosition(point);
             this.updateInfoOnPlacement();
-            this.placeAIPlayerOnBoard();
         }
     }
 
@@ -442,9 +718,7 @@ public class RaceTrack {
             this.gui.updatePlayersInfoLabel(this.players, this.currentPlayerIndex);
 
             this.showFinishingPosition(currentPlayer);
-            if (currentPlayer.isAI()) {
-                this.moveAI();
-            }
+            this.playAITurns();
         } else {
             this.currentPlayerIndex++;
         }
@@ -459,72 +733,71 @@ public class RaceTrack {
     public void setPlayerPosition(Point point) {
         Player currentPlayer = this.getCurrentPlayer();
         if (currentPlayer.isPlaced()) { // It's a new position
+            this.board.removeCar(currentPlayer.getPosition());
             currentPlayer.setLastPosition(currentPlayer.getPosition());
         } else { // It's the initial placement
             currentPlayer.setLastPosition(point);
+            currentPlayer.setLineBalance(this.isBehindLine(point) ? -1 : 0);
         }
 
         currentPlayer.setPlayerStartingDirection(this.board.getStartAndFinishLine().getDirection());
         currentPlayer.setPosition(point);
         currentPlayer.addMove(point);
-        this.board.turnIntoCar(point);
+        this.board.placeCar(point, this.currentPlayerIndex);
+        this.recordTurn(MoveLog.PLACEMENT);
 
         this.gui.setPlayerOnPosition(point, this.currentPlayerIndex);
     }
 
     /**
      * Shows possible finishing moves of the given player
-     * on the board.
+     * on the board. A player without any possible move
+     * crashes and the turn goes to the next player, whose
+     * moves are shown instead unless it is a placed AI
+     * player, which is moved by {@link #playAITurns()}.
      *
-     * @param player the given player
+     * @param player the given player, it has to be the
+     *               current player
      */
     private void showFinishingPosition(Player player) {
-        Point[] points = player.newPossibleDestinations();
-        Point[] validPoints = this.getValidPoints(points);
-        if (validPoints.length == 0) {
+        int legalMoves = MoveGenerator.legalMoves(this.board, player);
+        // Every player is skipped at most once, so the turn cannot go around forever
+        for (int skipped = 0; legalMoves == 0 && skipped < this.players.length; skipped++) {
             this.gui.showMessage(JavaFxGUI.NO_POSSIBLE_MOVE_TITLE, JavaFxGUI.NO_POSSIBLE_MOVE_MESSAGE);
             // Shows the next player possible moves
             player.updatePositionOnCrash();
-            Player nextPlayer = this.goToNextPlayer();
+            player = this.goToNextPlayer();
 
-            if (nextPlayer.isAI() && nextPlayer.isPlaced()) {
-                this.moveAI();
-            } else {
-                this.showFinishingPosition(nextPlayer);
+            if (player.isAI() && player.isPlaced()) {
+                return;
             }
-        } else {
-            this.gui.showFinishingPosition(player, validPoints);
+            legalMoves = MoveGenerator.legalMoves(this.board, player);
+        }
+
+        // A headless race shows nothing, so the points are not even created
+        if (legalMoves != 0 && !this.isHeadless) {
+            this.gui.showFinishingPosition(player, this.getValidPoints(player.newPossibleDestinations(), legalMoves));
         }
     }
 
     /**
-     * Separates valid points from an array of input points.
-     * Valid points are the points which have valid boundaries
-     * and there is no other car on the point already available.
+     * Separates valid points from the possible destinations
+     * of the current player. Valid points are the points
+     * which have valid boundaries and there is no other car
+     * on the point already available.
      *
-     * @param points the given points
+     * @param points     the possible destinations in the order of
+     *                   {@link Player#newPossibleDestinations()}
+     * @param legalMoves mask of the legal moves of the current
+     *                   player, see {@link MoveGenerator}
      * @return and array containing only the valid points of
      * the input points
      */
-    private Point[] getValidPoints(Point[] points) {
-        int count = 0;
-        Player currentPlayer = this.getCurrentPlayer();
-        for (Point point : points) {
-            if ((this.board.areValidCoords(point) &&
-                 !(this.board.isCar(point) && !currentPlayer.getPosition().equals(point))) ||
-                currentPlayer.getPosition().equals(point)
-            ) {
-                count++;
-            }
-        }
-
-        Point[] validPoints = new Point[count];
-        for (int i = 0, j = 0; i < points.length; i++) {
-            if ((this.board.areValidCoords(points[i]) &&
-                 !(this.board.isCar(points[i]) && !currentPlayer.getPosition().equals(points[i]))) ||
-                currentPlayer.getPosition().equals(points[i])
-            ) {
-                validPoints[j] = points[i];
+    private Point[] getValidPoints(Point[] points, int legalMoves) {
+        Point[] validPoints = new Point[Integer.bitCount(legalMoves)];
+        for (int move = 0, j = 0; move < points.length; move++) {
+            if (MoveGenerator.isLegal(legalMoves, move)) {
+                validPoints[j] = points[move];
                 j++;
             }
         }
@@ -540,8 +813,7 @@ public class RaceTrack {
      */
     public void move(Point point) {
         Player currentPlayer = this.getCurrentPlayer();
-        Point[] possibleDestinations = currentPlayer.newPossibleDestinations();
-        boolean isValidMove = this.validMove(possibleDestinations, point);
+        boolean isValidMove = this.validMove(MoveGenerator.legalMoves(this.board, currentPlayer), point);
         if (isValidMove) {
             this.updateGuiOrPlayerAfterMove(point);
             this.checkGameEnded();
@@ -552,9 +824,7 @@ public class RaceTrack {
 
             this.gui.updatePlayersInfoLabel(this.players, this.currentPlayerIndex);
 
-            if (nextPlayer.isAI()) {
-                this.moveAI();
-            }
+            this.playAITurns();
         } else {
             this.gui.showMessage(JavaFxGUI.INVALID_MOVE_TITLE, JavaFxGUI.INVALID_MOVE_MESSAGE);
         }
@@ -562,46 +832,213 @@ public class RaceTrack {
 
     /**
      * Updates the last position and the current position
-     * cells of the player in the gui if the given point
-     * is not gravel, otherwise resets the player speed
-     * vector to (0, 0).
+     * cells of the player in the gui if the way to the
+     * given point does not touch the gravel, otherwise
+     * resets the player speed vector to (0, 0).
      *
      * @param point the given point to move into
      */
     private void updateGuiOrPlayerAfterMove(Point point) {
         Player currentPlayer = this.getCurrentPlayer();
+        Point position = currentPlayer.getPosition();
+        Point speed = currentPlayer.getSpeed();
+        int move = MoveGenerator.findMove(position.x(), position.y(), speed.x(), speed.y(), point.x(), point.y());
 
-        if (!this.board.isGravel(point)) {
+        // A fast car must not jump over the gravel either
+        if (this.board.isSegmentClear(position, point)) {
             currentPlayer.move(point);
-            this.board.turnIntoTrack(currentPlayer.getLastPosition());
-            this.board.turnIntoCar(point);
+            this.board.moveCar(currentPlayer.getLastPosition(), point, this.currentPlayerIndex);
             this.gui.move(currentPlayer, point);
-        } else if (this.board.isGravel(point)) {
+        } else {
             // Resets the speed and the positions of the current player
             currentPlayer.updatePositionOnCrash();
         }
+        this.recordTurn(move);
+    }
+
+    /**
+     * Adds the last turn of the current player to the log of the race. If
+     * the race is a replay, the turn is compared with the replayed log.
+     *
+     * @param decision {@link MoveLog#PLACEMENT}, {@link MoveLog#NO_MOVE} or
+     *                 the number of the move
+     */
+    private void recordTurn(int decision) {
+        Point position = this.getCurrentPlayer().getPosition();
+        int index = this.moveLog.size();
+        this.moveLog.add(this.currentPlayerIndex, decision, position.x(), position.y());
+        if (this.journal != null) {
+            try {
+                this.journal.append(this.currentPlayerIndex, decision, position.x(), position.y());
+            } catch (IOException e) {
+                this.stopJournal();
+            }
+        }
+
+        if (this.replayLog != null && this.replayMismatch < 0
+            && (index >= this.replayLog.size()
+                || this.replayLog.getPlayer(index) != this.currentPlayerIndex
+                || this.replayLog.getDecision(index) != decision
+                || this.replayLog.getX(index) != position.x()
+                || this.replayLog.getY(index) != position.y())) {
+            this.replayMismatch = index;
+        }
+    }
+
+    /**
+     * Forces the turns of the journal onto the disk, for example at the end
+     * of the race.
+     */
+    private void syncJournal() {
+        if (this.journal != null) {
+            try {
+                this.journal.sync();
+            } catch (IOException e) {
+                this.stopJournal();
+            }
+        }
     }
 
     /**
-     * Moves the current player to the closest point
-     * to the next track cell and updates the logic
-     * and the gui.
+     * Stops journaling the turns after the journal failed and tells the
+     * user, the race itself goes on.
+     */
+    private void stopJournal() {
+        this.journal = null;
+        this.gui.showMessage(JavaFxGUI.INVALID_SAVE_STATE_TITLE, JavaFxGUI.JOURNAL_FAILED_MESSAGE);
+    }
+
+    /**
+     * Places the current player on the position of the next entry of the
+     * replayed log. The entry has to be a placement of the current player
+     * on a free track cell.
+     */
+    private void placeReplayedPlayer() {
+        int index = this.moveLog.size();
+        if (index >= this.replayLog.size()
+            || this.replayLog.getPlayer(index) != this.currentPlayerIndex
+            || this.replayLog.getDecision(index) != MoveLog.PLACEMENT) {
+            this.replayMismatch = index;
+            return;
+        }
+
+        Point point = new Point(this.replayLog.getX(index), this.replayLog.getY(index));
+        if (!this.board.isTrack(point) || this.board.isCar(point)
+            || this.board.getStartAndFinishLine().isOnLine(point)) {
+            this.replayMismatch = index;
+            return;
+        }
+
+        this.setPlayerPosition(point);
+        this.updateInfoOnPlacement();
+    }
+
+    /**
+     * Returns the move of the next entry of the replayed log. The entry has
+     * to be a move of the current player which is legal or no move at all.
+     *
+     * @param legalMoves mask of the legal moves of the current player
+     * @return number of the move, {@link MoveLog#NO_MOVE} or
+     * {@link MoveLog#PLACEMENT} if the entry does not match
+     */
+    private int nextReplayedMove(int legalMoves) {
+        int index = this.moveLog.size();
+        if (index >= this.replayLog.size() || this.replayLog.getPlayer(index) != this.currentPlayerIndex) {
+            this.replayMismatch = index;
+            return MoveLog.PLACEMENT;
+        }
+
+        int move = this.replayLog.getDecision(index);
+        if (move != MoveLog.NO_MOVE && (move < 0 || !MoveGenerator.isLegal(legalMoves, move))) {
+            this.replayMismatch = index;
+            return MoveLog.PLACEMENT;
+        }
+
+        return move;
+    }
+
+    /**
+     * Plays the next turn of a headless race, which is the move of the
+     * current AI player. The cars are placed on the track before the first
+     * turn.
+     *
+     * @return whether the race goes on after the turn
+     * @throws IllegalStateException if the track of the board is not closed
+     */
+    public boolean step() {
+        if (!this.gameStarted) {
+            if (!this.board.hasValidPath()) {
+                throw new IllegalStateException("The track of the board is not closed");
+            }
+            this.startGame();
+        }
+
+        if (!this.gameEnded) {
+            this.moveAI();
+        }
+
+        return !this.gameEnded;
+    }
+
+    /**
+     * Plays the turns of a headless race until it has ended, but at most the
+     * given number of turns, in case the AI players get stuck.
+     *
+     * @param maxTurns maximum number of the turns to play
+     * @return number of the played turns
+     * @throws IllegalStateException if the track of the board is not closed
+     */
+    public int runRace(int maxTurns) {
+        int turns = 0;
+        while (turns < maxTurns && !this.gameEnded) {
+            this.step();
+            turns++;
+        }
+
+        return turns;
+    }
+
+    /**
+     * Moves the AI players as long as one of them has the turn. The turns of
+     * a headless race are only played by {@link #step()}.
+     */
+    private void playAITurns() {
+        while (!this.isHeadless && !this.gameEnded && this.playersSetOnTrack && this.getCurrentPlayer().isAI()
+               && this.replayMismatch < 0) {
+            this.moveAI();
+        }
+    }
+
+    /**
+     * Moves the current AI player by its own decision or, in a replay, by
+     * the next entry of the replayed log. Updates the logic and the gui and
+     * hands the turn to the next player.
      */
     private void moveAI() {
         Player currentPlayer = this.getCurrentPlayer();
-        Point startPoint = this.findAIStartingPoint();
-        Point[] possibleDestinations = currentPlayer.newPossibleDestinations();
-        boolean isValidMove = this.validMove(possibleDestinations, startPoint);
-        Point newStartPoint;
-        if (!isValidMove) {
-            newStartPoint = this.findAIOptimalMove(possibleDestinations);
-
-            if (newStartPoint != null) {
-                startPoint = newStartPoint;
+        int legalMoves = MoveGenerator.legalMoves(this.board, currentPlayer);
+        int move;
+        if (this.replayLog == null) {
+            move = this.findAIMove(legalMoves);
+        } else {
+            move = this.nextReplayedMove(legalMoves);
+            if (move == MoveLog.PLACEMENT) {
+                return;
             }
         }
 
-        this.updateGuiOrPlayerAfterMove(startPoint);
+        if (move == MoveLog.NO_MOVE) {
+            // There is no move left, the car stops like in the gravel
+            currentPlayer.updatePositionOnCrash();
+            this.recordTurn(MoveLog.NO_MOVE);
+        } else {
+            Point position = currentPlayer.getPosition();
+            Point speed = currentPlayer.getSpeed();
+            this.updateGuiOrPlayerAfterMove(new Point(
+                    MoveGenerator.destinationX(position.x(), speed.x(), move),
+                    MoveGenerator.destinationY(position.y(), speed.y(), move)
+            ));
+        }
         this.checkGameEnded();
 
         // Shows the next player possible moves
@@ -609,10 +1046,104 @@ public class RaceTrack {
         this.showFinishingPosition(nextPlayer);
 
         this.gui.updatePlayersInfoLabel(this.players, this.currentPlayerIndex);
+    }
 
-        if (nextPlayer.isAI()) {
-            this.moveAI();
+    /**
+     * Decides the move of the current AI player. The player follows the
+     * racing line, if it cannot be followed anymore the player moves to the
+     * closest point to the next track cell.
+     *
+     * @param legalMoves mask of the legal moves of the current player
+     * @return number of the move or {@link MoveLog#NO_MOVE} if the player
+     * has no move left
+     */
+    private int findAIMove(int legalMoves) {
+        int firstMove = this.random == null ? 0 : this.random.nextInt(MoveGenerator.MOVE_COUNT);
+        int move = this.findAIRacingLineMove(legalMoves, firstMove);
+        if (move < 0) {
+            move = this.findAIClosestToFinishMove(legalMoves, firstMove);
+        }
+        if (move < 0) {
+            Player currentPlayer = this.getCurrentPlayer();
+            Point startPoint = this.findAIStartingPoint();
+            if (!this.validMove(legalMoves, startPoint)) {
+                startPoint = this.findAIOptimalMove(currentPlayer.newPossibleDestinations(), legalMoves);
+            }
+            if (startPoint != null) {
+                Point position = currentPlayer.getPosition();
+                Point speed = currentPlayer.getSpeed();
+                move = MoveGenerator.findMove(position.x(), position.y(), speed.x(), speed.y(),
+                                              startPoint.x(), startPoint.y());
+            }
         }
+
+        return move < 0 ? MoveLog.NO_MOVE : move;
+    }
+
+    /**
+     * Finds the move of the current AI player which needs the fewest turns
+     * to the start/finish line.
+     *
+     * @param legalMoves mask of the legal moves of the current player
+     * @param firstMove  number of the move which is checked first, it wins
+     *                   the ties
+     * @return number of the best move or -1 if the line cannot be reached
+     * with any of them
+     */
+    private int findAIRacingLineMove(int legalMoves, int firstMove) {
+        if (this.racingLineSolver == null) {
+            this.racingLineSolver = new RacingLineSolver(this.board);
+        }
+
+        Player currentPlayer = this.getCurrentPlayer();
+        Point position = currentPlayer.getPosition();
+        Point speed = currentPlayer.getSpeed();
+        return this.racingLineSolver.findBestMove(position.x(), position.y(), speed.x(), speed.y(),
+                                                  legalMoves, firstMove);
+    }
+
+    /**
+     * Finds the move of the current AI player which ends on the cell with the
+     * smallest distance to the start/finish line. A move which crosses the
+     * line in its direction is always preferred.
+     *
+     * @param legalMoves mask of the legal moves of the current player
+     * @param firstMove  number of the move which is checked first, it wins
+     *                   the ties
+     * @return number of the best move or -1 if the line cannot be reached
+     * with any of them
+     */
+    private int findAIClosestToFinishMove(int legalMoves, int firstMove) {
+        TrackLine line = this.board.getStartAndFinishLine();
+        Player currentPlayer = this.getCurrentPlayer();
+        Point position = currentPlayer.getPosition();
+        Point speed = currentPlayer.getSpeed();
+        int minDistance = Integer.MAX_VALUE;
+        int bestMove = -1;
+        for (int i = 0; i < MoveGenerator.MOVE_COUNT; i++) {
+            int move = (firstMove + i) % MoveGenerator.MOVE_COUNT;
+            int toX = MoveGenerator.destinationX(position.x(), speed.x(), move);
+            int toY = MoveGenerator.destinationY(position.y(), speed.y(), move);
+            if (!MoveGenerator.isLegal(legalMoves, move)
+                || !this.board.isSegmentClear(position.x(), position.y(), toX, toY)) {
+                continue;
+            }
+            int distance = this.board.getDistanceToFinish(toX, toY);
+            if (distance == Board.UNREACHABLE) {
+                continue;
+            }
+
+            int crossing = line.crossing(position.x(), position.y(), toX, toY);
+            if (crossing > 0) {
+                bestMove = move;
+                break;
+            } else if (crossing == 0 && distance < minDistance) {
+                minDistance = distance;
+                bestMove = move;
+            }
+        }
+
+        return bestMove;
     }
 
     /**
@@ -620,9 +1151,11 @@ public class RaceTrack {
      * AI player based on the given destinations.
      *
      * @param possibleDestinations the given destinations
+     * @param legalMoves           mask of the legal moves of the
+     *                             current player
      * @return the nearest point
      */
-    private Point findAIOptimalMove(Point[] possibleDestinations) {
+    private Point findAIOptimalMove(Point[] possibleDestinations, int legalMoves) {
         double minDistance = Double.MAX_VALUE;
         Player currentPlayer = this.getCurrentPlayer();
         Point currentPosition = currentPlayer.getPosition();
@@ -630,7 +1163,7 @@ public class RaceTrack {
         Point newStartPoint = null;
         for (Point possibleDestination : forwardPoints) {
             double dist = Point.calculateDistance(currentPosition, possibleDestination);
-            boolean isValidMove = this.validMove(possibleDestinations, possibleDestination);
+            boolean isValidMove = this.validMove(legalMoves, possibleDestination);
             if (!currentPosition.equals(possibleDestination) && dist < minDistance && isValidMove) {
                 minDistance = dist;
                 newStartPoint = possibleDestination;
@@ -648,12 +1181,13 @@ public class RaceTrack {
      */
     private Point findAIStartingPoint() {
         double minDistance = Double.MAX_VALUE;
-        int trackSize = this.board.getTrack().size();
+        PathArray track = this.board.getTrack();
+        int trackSize = track.size();
         Player currentPlayer = this.getCurrentPlayer();
         Point playerCurrentPosition = currentPlayer.getPosition();
         Point startPoint = null;
         for (int i = 0; i < trackSize; i++) {
-            Point currentPointToCheck = this.board.getTrack().getAt(i).getPosition();
+            Point currentPointToCheck = track.getAt(i).getPosition();
             int xDiff = currentPointToCheck.x() - playerCurrentPosition.x();
             int yDiff = currentPointToCheck.y() - playerCurrentPosition.y();
             if ((currentPlayer.getMovementDirection() == MovementDirection.RIGHT_UP && xDiff >= 0) ||
@@ -685,7 +1219,7 @@ public class RaceTrack {
     private void checkGameEnded() {
         Player currentPlayer = this.getCurrentPlayer();
 
-        if (this.lineIsCrossed() && !currentPlayer.isActive()) {
+        if (this.updateLapProgress() && !currentPlayer.isActive(this.lapCount)) {
             if (!this.firstPlayerWon) {
                 this.firstPlayerWon = true;
             }
@@ -694,6 +1228,7 @@ public class RaceTrack {
         }
         if (this.firstPlayerWon && (this.currentPlayerIndex == this.players.length - 1)) {
             this.gameEnded = true;
+            this.syncJournal();
             this.updateFinalWinners();
             this.gui.replayMenuItemDisabled(false);
             this.gui.displayFinalStatus(this.players);
@@ -705,7 +1240,7 @@ public class RaceTrack {
      * line and sets the winner flag of that player to true.
      */
     private void updateFinalWinners() {
-        int minDistance = 0;
+        int minDistance = Integer.MAX_VALUE;
         for (Integer winner : this.winners) {
             Point currentPlayerPosition = this.players[winner].getPosition();
             int currentDistance = this.board.getStartAndFinishLine().getDistanceFromPoint(currentPlayerPosition);
@@ -724,28 +1259,25 @@ public class RaceTrack {
     }
 
     /**
-     * Checks whether a point is a valid move based on
-     * the given possible destinations given as another
-     * input array.
+     * Checks whether a point is a valid move of the
+     * current player based on the given legal moves.
      *
-     * @param possibleDestinations input array containing possible moves
-     *                             from the current source
-     * @param point                the given input point
+     * @param legalMoves mask of the legal moves of the current
+     *                   player, see {@link MoveGenerator}
+     * @param point      the given input point
      * @return whether the given point is valid or not
      */
-    private boolean validMove(Point[] possibleDestinations, Point point) {
-        boolean isValid = false;
-        Point[] validPoints = this.getValidPoints(possibleDestinations);
-        if (point != null) {
-            for (Point validPoint : validPoints) {
-                if (point.equals(validPoint)) {
-                    isValid = true;
-                    break;
-                }
-            }
+    private boolean validMove(int legalMoves, Point point) {
+        if (point == null) {
+            return false;
         }
 
-        return isValid;
+        Player currentPlayer = this.getCurrentPlayer();
+        Point position = currentPlayer.getPosition();
+        Point speed = currentPlayer.getSpeed();
+        int move = MoveGenerator.findMove(position.x(), position.y(), speed.x(), speed.y(), point.x(), point.y());
+
+        return move >= 0 && MoveGenerator.isLegal(legalMoves, move);
     }
 
     /**
@@ -763,50 +1295,54 @@ public class RaceTrack {
     }
 
     /**
-     * Returns whether the current player has
-     * crossed the start/finish line or not, and
-     * increments the number of its crossings.
+     * Counts the crossings of the checkpoints and the start/finish
+     * line with the last move of the current player. Crossing the
+     * start/finish line against its direction is subtracted from
+     * the balance of the player, so only the crossings in its
+     * direction beyond the best balance so far complete a lap, and
+     * only after all the checkpoints of the lap.
      *
-     * @return whether the current player has
-     * crossed the start/finish line
+     * @return whether the current player has completed a lap
      */
-    private boolean lineIsCrossed() {
+    private boolean updateLapProgress() {
         Player currentPlayer = this.getCurrentPlayer();
-        TrackLine line = this.board.getStartAndFinishLine();
-        boolean isCrossed = false;
+        Point from = currentPlayer.getLastPosition();
+        Point to = currentPlayer.getPosition();
 
-        switch (line.getDirection()) {
-            case LEFT_RIGHT -> {
-                if (currentPlayer.getLastPosition().x() <= line.getStartPoint().x() &&
-                    currentPlayer.getPosition().x() > line.getStartPoint().x()) {
-                    isCrossed = true;
-                }
-            }
-            case RIGHT_LEFT -> {
-                if (currentPlayer.getLastPosition().x() >= line.getStartPoint().x() &&
-                    currentPlayer.getPosition().x() < line.getStartPoint().x()) {
-                    isCrossed = true;
-                }
-            }
-            case TOP_DOWN -> {
-                if (currentPlayer.getLastPosition().y() <= line.getStartPoint().y() &&
-                    currentPlayer.getPosition().y() > line.getStartPoint().y()) {
-                    isCrossed = true;
-                }
-            }
-            case DOWN_TOP -> {
-                if (currentPlayer.getLastPosition().y() >= line.getStartPoint().y() &&
-                    currentPlayer.getPosition().y() > line.getStartPoint().y()) {
-                    isCrossed = true;
-                }
-            }
+        int nextCheckpoint = currentPlayer.getNextCheckpoint();
+        if (nextCheckpoint < this.checkpoints.size()
+            && this.checkpoints.get(nextCheckpoint).crossing(from.x(), from.y(), to.x(), to.y()) > 0) {
+            currentPlayer.setNextCheckpoint(nextCheckpoint + 1);
         }
 
-        boolean crossedInCorrectDirection = currentPlayer.getMoves().size() >= this.board.getTrack().size();
-        if (crossedInCorrectDirection && isCrossed) {
+        int crossing = this.board.getStartAndFinishLine().crossing(from.x(), from.y(), to.x(), to.y());
+        if (crossing == 0) {
+            return false;
+        }
+
+        currentPlayer.setLineBalance(currentPlayer.getLineBalance() + crossing);
+        if (crossing > 0 && currentPlayer.getLineBalance() > currentPlayer.getCrossedLine()
+            && currentPlayer.getNextCheckpoint() == this.checkpoints.size()) {
             currentPlayer.incrementCrossedLine();
+            currentPlayer.setNextCheckpoint(0);
+            return true;
         }
 
-        return crossedInCorrectDirection && isCrossed;
+        return false;
+    }
+
+    /**
+     * Checks whether a car placed on the given point is behind the
+     * start/finish line, which means it reaches the line within
+     * less than half a lap.
+     *
+     * @param point the given point
+     * @return whether the point is behind the start/finish line
+     */
+    private boolean isBehindLine(Point point) {
+        PathArray track = this.board.getTrack();
+        int distance = this.board.getDistanceToFinish(point);
+
+        return track != null && distance != Board.UNREACHABLE && 2 * distance < track.size();
     }
 }
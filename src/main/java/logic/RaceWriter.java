@@ -0,0 +1,314 @@
+package logic;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes a race in the JSON format of {@link RaceTrack#save()} as a stream,
+ * cell by cell, so the memory it needs does not depend on the size of the
+ * board. The writer holds a snapshot of the race taken when it is created,
+ * see {@link RaceTrack#createWriter()}. It can write on any thread while the
+ * race goes on, for example to save a large board without stopping the gui.
+ * <p>
+ * Besides the track and the positions of the cars, the snapshot holds
+ * everything {@link TrackLoader} needs to resume the race: the speed,
+ * direction and lap state of each player, its history of moves encoded by
+ * {@link MoveHistory#toBytes()} in Base64, the laps and checkpoints of the
+ * race and its winners so far.
+ *
+ * @author ite105705
+ */
+public final class RaceWriter {
+
+    /**
+     * Indent of the pretty-printed output.
+     */
+    private static final String INDENT = "  ";
+
+    /**
+     * Snapshot of the board.
+     */
+    private final Board board;
+
+    /**
+     * Number of the player entries, the missing players are written as
+     * inactive ones.
+     */
+    private final int playerSlots;
+
+    /**
+     * Snapshots of the players.
+     */
+    private final PlayerSnapshot[] players;
+
+    /**
+     * Index of the current player.
+     */
+    private final int currentPlayerIndex;
+
+    /**
+     * Number of the laps of the race.
+     */
+    private final int lapCount;
+
+    /**
+     * Checkpoints of the race, the lines are not changed during a race.
+     */
+    private final List<TrackLine> checkpoints;
+
+    /**
+     * Whether all the cars are placed.
+     */
+    private final boolean placementEnded;
+
+    /**
+     * Indexes of the players who have completed all the laps.
+     */
+    private final List<Integer> winners;
+
+    /**
+     * Number of the turns in the log of the race.
+     */
+    private final int turnCount;
+
+    /**
+     * The state of a player at the time of the snapshot.
+     *
+     * @param name          name of the player
+     * @param status        status of the player
+     * @param position      position of the car or null, if it is not placed
+     * @param lastPosition  last position of the car or null, if it is not
+     *                      placed
+     * @param speed         speed of the car
+     * @param direction     movement direction of the car or null
+     * @param crossedLine   number of the completed laps
+     * @param lineBalance   balance of the crossings of the line
+     * @param checkpoint    index of the next checkpoint
+     * @param crashCount    number of the crashes
+     * @param isWinner      whether the player has won
+     * @param history       the encoded history of the moves
+     */
+    private record PlayerSnapshot(String name, PlayerStatus status, Point position, Point lastPosition,
+                                  Point speed, MovementDirection direction, int crossedLine, int lineBalance,
+                                  int checkpoint, int crashCount, boolean isWinner, byte[] history) {
+    }
+
+    /**
+     * Takes a snapshot of the given race. The board is shared until one of
+     * them is changed, the state of the players is copied.
+     *
+     * @param raceTrack   the given race
+     * @param playerSlots number of the player entries
+     */
+    RaceWriter(RaceTrack raceTrack, int playerSlots) {
+        Player[] racePlayers = raceTrack.getPlayers() == null ? new Player[0] : raceTrack.getPlayers();
+        this.board = raceTrack.getBoard().snapshot();
+        this.playerSlots = Math.max(playerSlots, racePlayers.length);
+        this.players = new PlayerSnapshot[racePlayers.length];
+        for (int i = 0; i < racePlayers.length; i++) {
+            Player player = racePlayers[i];
+            this.players[i] = new PlayerSnapshot(player.getName(), player.getStatus(), player.getPosition(),
+                                                 player.getLastPosition(), player.getSpeed(),
+                                                 player.getMovementDirection(), player.getCrossedLine(),
+                                                 player.getLineBalance(), player.getNextCheckpoint(),
+                                                 player.getCrashCount(), player.isWinner(),
+                                                 player.getMoves().toBytes());
+        }
+        this.currentPlayerIndex = raceTrack.getCurrentPlayerIndex();
+        this.lapCount = raceTrack.getLapCount();
+        this.checkpoints = raceTrack.getCheckpoints();
+        this.placementEnded = raceTrack.isPlacementEnded();
+        this.winners = raceTrack.getWinners();
+        this.turnCount = raceTrack.getMoveLog().size();
+    }
+
+    /**
+     * Returns the number of the turns in the log of the race at the time of
+     * the snapshot, the following turns are not part of the written race.
+     *
+     * @return number of the turns
+     */
+    public int getTurnCount() {
+        return this.turnCount;
+    }
+
+    /**
+     * Writes the race to the given file through a buffered writer. An
+     * existing file is replaced.
+     *
+     * @param path    path of the file
+     * @param compact whether the output is written without any whitespace,
+     *                otherwise it is pretty-printed
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path, boolean compact) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            this.write(writer, compact);
+        }
+    }
+
+    /**
+     * Writes the race to the given writer.
+     *
+     * @param writer  the given writer, it is flushed but not closed
+     * @param compact whether the output is written without any whitespace,
+     *                otherwise it is pretty-printed
+     * @throws IOException if the writer fails
+     */
+    public void write(Writer writer, boolean compact) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        if (!compact) {
+            json.setIndent(INDENT);
+        }
+
+        json.beginObject();
+        json.name("track");
+        this.writeTrack(json);
+        json.name("direction").value(Integer.parseInt(this.board.getStartAndFinishLine().toString()));
+        json.name("player");
+        this.writePlayers(json);
+        json.name("currentPlayer").value(this.currentPlayerIndex);
+        json.name("laps").value(this.lapCount);
+        json.name("checkpoints");
+        this.writeCheckpoints(json);
+        json.name("placementEnded").value(this.placementEnded);
+        json.name("winners").beginArray();
+        for (int winner : this.winners) {
+            json.value(winner);
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * Returns the race as a JSON string.
+     *
+     * @param compact whether the output is written without any whitespace,
+     *                otherwise it is pretty-printed
+     * @return the JSON string
+     */
+    public String toJson(boolean compact) {
+        StringWriter writer = new StringWriter();
+        try {
+            this.write(writer, compact);
+        } catch (IOException e) {
+            // A string writer does not fail
+            throw new IllegalStateException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Writes the states of the cells row by row, so the state of the cell
+     * (x, y) is track[y][x].
+     *
+     * @param json the writer
+     * @throws IOException if the writer fails
+     */
+    private void writeTrack(JsonWriter json) throws IOException {
+        json.beginArray();
+        for (int y = 0; y < this.board.getRowCount(); y++) {
+            json.beginArray();
+            for (int x = 0; x < this.board.getColCount(); x++) {
+                json.value(this.board.getState(x, y).ordinal());
+            }
+            json.endArray();
+        }
+        json.endArray();
+    }
+
+    /**
+     * Writes an entry for each player slot, the slots without a player are
+     * written as inactive players.
+     *
+     * @param json the writer
+     * @throws IOException if the writer fails
+     */
+    private void writePlayers(JsonWriter json) throws IOException {
+        json.beginArray();
+        for (int i = 0; i < this.playerSlots; i++) {
+            json.beginObject();
+            if (i < this.players.length) {
+                PlayerSnapshot player = this.players[i];
+                json.name("active").value(player.status() != PlayerStatus.INACTIVE);
+                json.name("name").value(player.name());
+                json.name("ai").value(player.status() == PlayerStatus.AI);
+                // A player who has not placed the car yet has no positions
+                if (player.position() != null) {
+                    json.name("current");
+                    writePoint(json, player.position());
+                }
+                if (player.lastPosition() != null) {
+                    json.name("last");
+                    writePoint(json, player.lastPosition());
+                }
+                json.name("lap").value(player.crossedLine());
+                json.name("speed");
+                writePoint(json, player.speed());
+                if (player.direction() != null) {
+                    json.name("movement").value(player.direction().name());
+                }
+                json.name("lineBalance").value(player.lineBalance());
+                json.name("checkpoint").value(player.checkpoint());
+                json.name("crashes").value(player.crashCount());
+                json.name("winner").value(player.isWinner());
+                json.name("history").value(Base64.getEncoder().encodeToString(player.history()));
+            } else {
+                json.name("active").value(false);
+                json.name("name").value("");
+                json.name("ai").value(false);
+                json.name("current");
+                writePoint(json, new Point(0, 0));
+                json.name("last");
+                writePoint(json, new Point(0, 0));
+                json.name("lap").value(0);
+            }
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    /**
+     * Writes the checkpoints, each with its start, end and direction.
+     *
+     * @param json the writer
+     * @throws IOException if the writer fails
+     */
+    private void writeCheckpoints(JsonWriter json) throws IOException {
+        json.beginArray();
+        for (TrackLine checkpoint : this.checkpoints) {
+            json.beginObject();
+            json.name("start");
+            writePoint(json, checkpoint.getStartPoint());
+            json.name("end");
+            writePoint(json, checkpoint.getEndPoint());
+            json.name("direction").value(Integer.parseInt(checkpoint.toString()));
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    /**
+     * Writes a point as an array of its x and y-axis value.
+     *
+     * @param json  the writer
+     * @param point the point
+     * @throws IOException if the writer fails
+     */
+    private static void writePoint(JsonWriter json, Point point) throws IOException {
+        json.beginArray();
+        json.value(point.x());
+        json.value(point.y());
+        json.endArray();
+    }
+}
@@ -0,0 +1,369 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Plans the racing line of the AI players. The solver searches the real state
+ * space of a car, its position and its speed vector, with the same rules as
+ * {@link Player#newPossibleDestinations()} and {@link Player#move(Point)}:
+ * the speed may change by at most one per axis in every turn. For every state
+ * the minimum number of turns until the start/finish line is crossed in its
+ * direction is computed once per track with a backward breadth-first search,
+ * afterwards each turn of the AI is only a lookup of its nine possible moves.
+ * <p>
+ * Crossing the line against its direction and moves which touch the gravel
+ * anywhere on their way ({@link Board#isSegmentClear(int, int, int, int)})
+ * are never part of a planned line, so a car which is placed behind the line
+ * has to drive the whole lap. A crash is only chosen if no other move leads
+ * to the line anymore, it resets the car to its position with zero speed.
+ *
+ * @author ite105705
+ */
+public class RacingLineSolver {
+
+    /**
+     * Default maximum absolute value of each component of the speed vector.
+     */
+    public static final int DEFAULT_MAX_SPEED = 4;
+
+    /**
+     * Number of turns of the states from which the line cannot be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * The board the racing line is planned for.
+     */
+    private final Board board;
+
+    /**
+     * The start/finish line which has to be crossed.
+     */
+    private final TrackLine line;
+
+    /**
+     * Maximum absolute value of each component of the speed vector.
+     */
+    private final int maxSpeed;
+
+    /**
+     * Number of the different speed values per axis.
+     */
+    private final int speedRange;
+
+    /**
+     * Number of the different speed vectors.
+     */
+    private final int speedCount;
+
+    /**
+     * Compact index of every cell which is not gravel, -1 for gravel cells.
+     * The cells are indexed by y * colCount + x.
+     */
+    private final int[] drivableIds;
+
+    /**
+     * Cell index (y * colCount + x) of every compact index.
+     */
+    private final int[] drivableCells;
+
+    /**
+     * Minimum number of turns to the line for every state, the state of the
+     * car on the compact cell c with the speed vector s is at c * speedCount + s.
+     */
+    private final int[] turnsToFinish;
+
+    /**
+     * Creates the solver for the given board with the default maximum speed
+     * and computes the turns of all the states.
+     *
+     * @param board the given board, its start/finish line has to be drawn
+     */
+    public RacingLineSolver(Board board) {
+        this(board, DEFAULT_MAX_SPEED);
+    }
+
+    /**
+     * Creates the solver for the given board and computes the turns of all
+     * the states.
+     *
+     * @param board    the given board, its start/finish line has to be drawn
+     * @param maxSpeed maximum absolute value of each component of the speed
+     *                 vector which is planned with
+     */
+    public RacingLineSolver(Board board, int maxSpeed) {
+        this.board = board;
+        this.line = board.getStartAndFinishLine();
+        this.maxSpeed = maxSpeed;
+        this.speedRange = 2 * maxSpeed + 1;
+        this.speedCount = this.speedRange * this.speedRange;
+
+        int colCount = board.getColCount();
+        int cellCount = colCount * board.getRowCount();
+        this.drivableIds = new int[cellCount];
+        int drivableCount = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            boolean isDrivable = !board.isGravel(cell % colCount, cell / colCount);
+            this.drivableIds[cell] = isDrivable ? drivableCount++ : -1;
+        }
+        this.drivableCells = new int[drivableCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (this.drivableIds[cell] >= 0) {
+                this.drivableCells[this.drivableIds[cell]] = cell;
+            }
+        }
+
+        this.turnsToFinish = new int[drivableCount * this.speedCount];
+        Arrays.fill(this.turnsToFinish, UNREACHABLE);
+        this.computeTurnsToFinish();
+    }
+
+    /**
+     * Getter method of the maximum speed the solver plans with.
+     *
+     * @return maximum absolute value of each component of the speed vector
+     */
+    public int getMaxSpeed() {
+        return this.maxSpeed;
+    }
+
+    /**
+     * Returns the minimum number of turns a car at the given position with the
+     * given speed needs to cross the start/finish line.
+     *
+     * @param x  x-axis value of the position
+     * @param y  y-axis value of the position
+     * @param vx x-axis value of the speed
+     * @param vy y-axis value of the speed
+     * @return minimum number of turns or {@link #UNREACHABLE} if the line
+     * cannot be reached or the state is not planned
+     */
+    public int getTurnsToFinish(int x, int y, int vx, int vy) {
+        int state = this.toState(x, y, vx, vy);
+
+        return state < 0 ? UNREACHABLE : this.turnsToFinish[state];
+    }
+
+    /**
+     * Finds the best of the given destinations of a car at the given position
+     * with the given speed. The best destination is the one with the fewest
+     * turns to the line afterwards, a move which crosses the line is always
+     * the best one.
+     *
+     * @param position     current position of the car
+     * @param speed        current speed of the car
+     * @param destinations destinations the car is allowed to move to
+     * @return the best destination or null if none of them leads to the line
+     */
+    public Point findBestMove(Point position, Point speed, Point[] destinations) {
+        Point bestMove = null;
+        Point crashMove = null;
+        int minTurns = Integer.MAX_VALUE;
+        for (Point destination : destinations) {
+            if (!this.board.isSegmentClear(position, destination)) {
+                crashMove = destination;
+            } else {
+                int turns = this.getTurnsAfterMove(position.x(), position.y(), destination.x(), destination.y());
+                if (turns != UNREACHABLE && turns < minTurns) {
+                    minTurns = turns;
+                    bestMove = destination;
+                }
+            }
+        }
+
+        // The car stops in the gravel and starts again from its position without speed
+        if (bestMove == null && crashMove != null
+            && this.getTurnsToFinish(position.x(), position.y(), 0, 0) != UNREACHABLE) {
+            bestMove = crashMove;
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Finds the best of the given legal moves of a car at the given position
+     * with the given speed, like {@link #findBestMove(Point, Point, Point[])}
+     * but without creating any objects.
+     *
+     * @param x          x-axis value of the position
+     * @param y          y-axis value of the position
+     * @param vx         x-axis value of the speed
+     * @param vy         y-axis value of the speed
+     * @param legalMoves mask of the moves the car is allowed to make, see
+     *                   {@link MoveGenerator}
+     * @return number of the best move or -1 if none of them leads to the line
+     */
+    public int findBestMove(int x, int y, int vx, int vy, int legalMoves) {
+        return this.findBestMove(x, y, vx, vy, legalMoves, 0);
+    }
+
+    /**
+     * Finds the best of the given legal moves like
+     * {@link #findBestMove(int, int, int, int, int)}, but checks the moves
+     * beginning with the given one, so it wins the ties instead of move 0.
+     *
+     * @param x          x-axis value of the position
+     * @param y          y-axis value of the position
+     * @param vx         x-axis value of the speed
+     * @param vy         y-axis value of the speed
+     * @param legalMoves mask of the moves the car is allowed to make, see
+     *                   {@link MoveGenerator}
+     * @param firstMove  number of the move which is checked first
+     * @return number of the best move or -1 if none of them leads to the line
+     */
+    public int findBestMove(int x, int y, int vx, int vy, int legalMoves, int firstMove) {
+        int bestMove = -1;
+        int crashMove = -1;
+        int minTurns = Integer.MAX_VALUE;
+        for (int i = 0; i < MoveGenerator.MOVE_COUNT; i++) {
+            int move = (firstMove + i) % MoveGenerator.MOVE_COUNT;
+            if (!MoveGenerator.isLegal(legalMoves, move)) {
+                continue;
+            }
+
+            int toX = MoveGenerator.destinationX(x, vx, move);
+            int toY = MoveGenerator.destinationY(y, vy, move);
+            if (!this.board.isSegmentClear(x, y, toX, toY)) {
+                crashMove = move;
+            } else {
+                int turns = this.getTurnsAfterMove(x, y, toX, toY);
+                if (turns != UNREACHABLE && turns < minTurns) {
+                    minTurns = turns;
+                    bestMove = move;
+                }
+            }
+        }
+
+        // The car stops in the gravel and starts again from its position without speed
+        if (bestMove < 0 && crashMove >= 0 && this.getTurnsToFinish(x, y, 0, 0) != UNREACHABLE) {
+            bestMove = crashMove;
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Returns the number of turns which are left after a car moves from the
+     * first to the second position, the way between them does not touch the
+     * gravel.
+     *
+     * @param fromX x-axis value of the current position
+     * @param fromY y-axis value of the current position
+     * @param toX   x-axis value of the destination
+     * @param toY   y-axis value of the destination
+     * @return number of the turns left, zero if the move crosses the line or
+     * {@link #UNREACHABLE} if the line cannot be reached anymore
+     */
+    private int getTurnsAfterMove(int fromX, int fromY, int toX, int toY) {
+        if (!this.board.areValidCoords(toX, toY)) {
+            return UNREACHABLE;
+        }
+
+        int crossing = this.line.crossing(fromX, fromY, toX, toY);
+        if (crossing > 0) {
+            return 0;
+        } else if (crossing < 0) {
+            return UNREACHABLE;
+        }
+
+        return this.getTurnsToFinish(toX, toY, toX - fromX, toY - fromY);
+    }
+
+    /**
+     * Computes the turns of all the states. First every state which can cross
+     * the line with one move gets one turn, afterwards the turns are spread
+     * backwards by following the moves which lead into an already reached
+     * state.
+     */
+    private void computeTurnsToFinish() {
+        int colCount = this.board.getColCount();
+        int[] queue = new int[this.turnsToFinish.length];
+        int head = 0;
+        int tail = 0;
+
+        // States which reach the line with a single move
+        for (int id = 0; id < this.drivableCells.length; id++) {
+            int x = this.drivableCells[id] % colCount;
+            int y = this.drivableCells[id] / colCount;
+            for (int speed = 0; speed < this.speedCount; speed++) {
+                int vx = speed / this.speedRange - this.maxSpeed;
+                int vy = speed % this.speedRange - this.maxSpeed;
+                if (this.canCrossLine(x, y, vx, vy)) {
+                    int state = id * this.speedCount + speed;
+                    this.turnsToFinish[state] = 1;
+                    queue[tail++] = state;
+                }
+            }
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            int turns = this.turnsToFinish[state] + 1;
+            int cell = this.drivableCells[state / this.speedCount];
+            int x = cell % colCount;
+            int y = cell / colCount;
+            int vx = state % this.speedCount / this.speedRange - this.maxSpeed;
+            int vy = state % this.speedCount % this.speedRange - this.maxSpeed;
+
+            // The car came from x - vx, y - vy with a speed which differs by the acceleration
+            int fromX = x - vx;
+            int fromY = y - vy;
+            if (this.board.isSegmentClear(fromX, fromY, x, y) && this.line.crossing(fromX, fromY, x, y) == 0) {
+                for (int i = 0; i < MoveGenerator.MOVE_COUNT; i++) {
+                    int previous = this.toState(fromX, fromY,
+                            vx - MoveGenerator.ACCELERATION_X[i], vy - MoveGenerator.ACCELERATION_Y[i]);
+                    if (previous >= 0 && this.turnsToFinish[previous] == UNREACHABLE) {
+                        this.turnsToFinish[previous] = turns;
+                        queue[tail++] = previous;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a car in the given state can cross the line with one
+     * of its moves.
+     *
+     * @param x  x-axis value of the position
+     * @param y  y-axis value of the position
+     * @param vx x-axis value of the speed
+     * @param vy y-axis value of the speed
+     * @return whether the car can cross the line with one move
+     */
+    private boolean canCrossLine(int x, int y, int vx, int vy) {
+        for (int i = 0; i < MoveGenerator.MOVE_COUNT; i++) {
+            int newVx = vx + MoveGenerator.ACCELERATION_X[i];
+            int newVy = vy + MoveGenerator.ACCELERATION_Y[i];
+            int toX = x + newVx;
+            int toY = y + newVy;
+            if (Math.abs(newVx) <= this.maxSpeed && Math.abs(newVy) <= this.maxSpeed
+                && this.board.isSegmentClear(x, y, toX, toY)
+                && this.line.crossing(x, y, toX, toY) > 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the index of the given state.
+     *
+     * @param x  x-axis value of the position
+     * @param y  y-axis value of the position
+     * @param vx x-axis value of the speed
+     * @param vy y-axis value of the speed
+     * @return index of the state or -1 if the position is not drivable or
+     * the speed is too high
+     */
+    private int toState(int x, int y, int vx, int vy) {
+        if (!this.board.areValidCoords(x, y) || Math.abs(vx) > this.maxSpeed || Math.abs(vy) > this.maxSpeed) {
+            return -1;
+        }
+
+        int id = this.drivableIds[y * this.board.getColCount() + x];
+
+        return id < 0 ? -1 : id * this.speedCount + (vx + this.maxSpeed) * this.speedRange + vy + this.maxSpeed;
+    }
+}
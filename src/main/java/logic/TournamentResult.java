@@ -0,0 +1,230 @@
+package logic;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Results of the races of a tournament, summed up by the names of the
+ * players. Each worker of a {@link TournamentRunner} fills a result of its
+ * own, the results of the workers are merged afterwards.
+ *
+ * @author ite105705
+ */
+public final class TournamentResult {
+
+    /**
+     * Index of the number of the races in the statistics of a player.
+     */
+    private static final int RACES = 0;
+
+    /**
+     * Index of the number of the wins in the statistics of a player.
+     */
+    private static final int WINS = 1;
+
+    /**
+     * Index of the number of the moves in the statistics of a player.
+     */
+    private static final int MOVES = 2;
+
+    /**
+     * Index of the number of the crashes in the statistics of a player.
+     */
+    private static final int CRASHES = 3;
+
+    /**
+     * Number of the values in the statistics of a player.
+     */
+    private static final int STATISTICS_SIZE = 4;
+
+    /**
+     * Statistics of each player name in the order of their first race.
+     */
+    private final Map<String, long[]> statistics;
+
+    /**
+     * Number of the played races.
+     */
+    private int raceCount;
+
+    /**
+     * Number of the races which ended before the maximum number of turns.
+     */
+    private int finishedRaceCount;
+
+    /**
+     * Number of the turns of all the races.
+     */
+    private long turnCount;
+
+    /**
+     * Creates an empty result.
+     */
+    TournamentResult() {
+        this.statistics = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a played race to the result.
+     *
+     * @param players  the players of the race
+     * @param turns    number of the turns of the race
+     * @param finished whether the race has ended
+     */
+    void addRace(Player[] players, int turns, boolean finished) {
+        this.raceCount++;
+        this.turnCount += turns;
+        if (finished) {
+            this.finishedRaceCount++;
+        }
+
+        for (Player player : players) {
+            long[] values = this.statistics.computeIfAbsent(player.getName(), name -> new long[STATISTICS_SIZE]);
+            values[RACES]++;
+            if (player.isWinner()) {
+                values[WINS]++;
+            }
+            // The first move is the placement of the car
+            values[MOVES] += Math.max(0, player.getMoves().size() - 1);
+            values[CRASHES] += player.getCrashCount();
+        }
+    }
+
+    /**
+     * Adds all the races of the given result to this result.
+     *
+     * @param other the given result
+     * @return this result
+     */
+    TournamentResult merge(TournamentResult other) {
+        this.raceCount += other.raceCount;
+        this.finishedRaceCount += other.finishedRaceCount;
+        this.turnCount += other.turnCount;
+        for (Map.Entry<String, long[]> entry : other.statistics.entrySet()) {
+            long[] values = this.statistics.computeIfAbsent(entry.getKey(), name -> new long[STATISTICS_SIZE]);
+            for (int i = 0; i < STATISTICS_SIZE; i++) {
+                values[i] += entry.getValue()[i];
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Getter method of the number of the played races.
+     *
+     * @return number of the races
+     */
+    public int getRaceCount() {
+        return this.raceCount;
+    }
+
+    /**
+     * Getter method of the number of the races which ended before the
+     * maximum number of turns.
+     *
+     * @return number of the finished races
+     */
+    public int getFinishedRaceCount() {
+        return this.finishedRaceCount;
+    }
+
+    /**
+     * Getter method of the number of the turns of all the races.
+     *
+     * @return number of the turns
+     */
+    public long getTurnCount() {
+        return this.turnCount;
+    }
+
+    /**
+     * Returns the names of all the players of the tournament.
+     *
+     * @return names of the players
+     */
+    public Set<String> getPlayerNames() {
+        return Collections.unmodifiableSet(this.statistics.keySet());
+    }
+
+    /**
+     * Returns the number of the races of the player with the given name.
+     *
+     * @param name the name of the player
+     * @return number of the races, 0 for an unknown player
+     */
+    public long getRaces(String name) {
+        return this.getValue(name, RACES);
+    }
+
+    /**
+     * Returns the number of the races the player with the given name won.
+     *
+     * @param name the name of the player
+     * @return number of the wins, 0 for an unknown player
+     */
+    public long getWins(String name) {
+        return this.getValue(name, WINS);
+    }
+
+    /**
+     * Returns the number of the moves of the player with the given name in
+     * all its races, the placements of the car are not counted.
+     *
+     * @param name the name of the player
+     * @return number of the moves, 0 for an unknown player
+     */
+    public long getMoves(String name) {
+        return this.getValue(name, MOVES);
+    }
+
+    /**
+     * Returns the number of the crashes of the player with the given name in
+     * all its races.
+     *
+     * @param name the name of the player
+     * @return number of the crashes, 0 for an unknown player
+     */
+    public long getCrashes(String name) {
+        return this.getValue(name, CRASHES);
+    }
+
+    /**
+     * Returns one value of the statistics of the given player.
+     *
+     * @param name  the name of the player
+     * @param value index of the value
+     * @return the value, 0 for an unknown player
+     */
+    private long getValue(String name, int value) {
+        long[] values = this.statistics.get(name);
+
+        return values == null ? 0 : values[value];
+    }
+
+    /**
+     * Summarises the result with one line per player.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        output.append(this.raceCount).append(" races, ")
+              .append(this.finishedRaceCount).append(" finished, ")
+              .append(this.turnCount).append(" turns");
+        for (Map.Entry<String, long[]> entry : this.statistics.entrySet()) {
+            long[] values = entry.getValue();
+            output.append(System.lineSeparator())
+                  .append(entry.getKey()).append(": ")
+                  .append(values[RACES]).append(" races, ")
+                  .append(values[WINS]).append(" wins, ")
+                  .append(values[MOVES]).append(" moves, ")
+                  .append(values[CRASHES]).append(" crashes");
+        }
+
+        return output.toString();
+    }
+}
@@ -0,0 +1,220 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays a tournament of headless races between AI players, for example to
+ * tune the AI. Every line-up of players races the given number of times on
+ * every track.
+ * <p>
+ * The races are spread over a {@link ForkJoinPool}. Every race gets its own
+ * snapshot of the track and its own players, only the racing line solver of
+ * each track is shared, because it is not changed by the races. Each task
+ * sums up its races in a result of its own, the results are merged when the
+ * tasks are joined, so the workers never wait for each other.
+ *
+ * @author ite105705
+ */
+public class TournamentRunner {
+
+    /**
+     * Default maximum number of the turns of a race.
+     */
+    public static final int DEFAULT_MAX_TURNS = 10_000;
+
+    /**
+     * Number of the races a task plays itself instead of splitting them.
+     */
+    private static final int RACES_PER_TASK = 8;
+
+    /**
+     * The tracks of the tournament, they are never raced on directly.
+     */
+    private final List<Board> tracks;
+
+    /**
+     * Names of the players of each line-up.
+     */
+    private final List<String[]> lineUps;
+
+    /**
+     * Number of the races of each line-up on each track.
+     */
+    private final int racesPerTrack;
+
+    /**
+     * Maximum number of the turns of a race.
+     */
+    private final int maxTurns;
+
+    /**
+     * Creates a tournament with the default maximum number of turns.
+     *
+     * @param tracks        the tracks, each of them has to be closed
+     * @param lineUps       names of the AI players of each line-up, the names
+     *                      of a line-up have to be different
+     * @param racesPerTrack number of the races of each line-up on each track
+     * @throws IllegalArgumentException if a track is not closed or a line-up
+     *                                  has no players
+     */
+    public TournamentRunner(List<Board> tracks, List<String[]> lineUps, int racesPerTrack) {
+        this(tracks, lineUps, racesPerTrack, DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Creates a tournament.
+     *
+     * @param tracks        the tracks, each of them has to be closed
+     * @param lineUps       names of the AI players of each line-up, the names
+     *                      of a line-up have to be different
+     * @param racesPerTrack number of the races of each line-up on each track
+     * @param maxTurns      maximum number of the turns of a race, in case the
+     *                      AI players get stuck
+     * @throws IllegalArgumentException if a track is not closed or a line-up
+     *                                  has no players
+     */
+    public TournamentRunner(List<Board> tracks, List<String[]> lineUps, int racesPerTrack, int maxTurns) {
+        for (Board track : tracks) {
+            if (!track.hasValidPath()) {
+                throw new IllegalArgumentException("The track of every board has to be closed");
+            }
+        }
+        for (String[] lineUp : lineUps) {
+            if (lineUp.length == 0) {
+                throw new IllegalArgumentException("A line-up needs at least one player");
+            }
+        }
+
+        this.tracks = List.copyOf(tracks);
+        this.lineUps = List.copyOf(lineUps);
+        this.racesPerTrack = racesPerTrack;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Returns the number of the races of the tournament.
+     *
+     * @return number of the races
+     */
+    public int getRaceCount() {
+        return this.tracks.size() * this.lineUps.size() * this.racesPerTrack;
+    }
+
+    /**
+     * Plays all the races on the common pool.
+     *
+     * @return the results of all the races
+     */
+    public TournamentResult run() {
+        return this.run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays all the races on the given pool.
+     *
+     * @param pool the given pool
+     * @return the results of all the races
+     */
+    public TournamentResult run(ForkJoinPool pool) {
+        List<ForkJoinTask<RacingLineSolver>> solverTasks = new ArrayList<>();
+        for (Board track : this.tracks) {
+            solverTasks.add(pool.submit(() -> new RacingLineSolver(track)));
+        }
+        RacingLineSolver[] solvers = new RacingLineSolver[solverTasks.size()];
+        for (int i = 0; i < solvers.length; i++) {
+            solvers[i] = solverTasks.get(i).join();
+        }
+
+        return pool.invoke(new RaceTask(solvers, 0, this.getRaceCount()));
+    }
+
+    /**
+     * Plays the race with the given number. The races are numbered by track,
+     * then by line-up.
+     *
+     * @param solvers the solvers of the tracks
+     * @param race    the number of the race
+     * @param result  the result to add the race to
+     */
+    private void playRace(RacingLineSolver[] solvers, int race, TournamentResult result) {
+        int trackIndex = race / (this.racesPerTrack * this.lineUps.size());
+        String[] lineUp = this.lineUps.get(race / this.racesPerTrack % this.lineUps.size());
+
+        Player[] players = new Player[lineUp.length];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player(lineUp[i], PlayerStatus.AI, i);
+        }
+
+        RaceTrack game = new RaceTrack(this.tracks.get(trackIndex).snapshot(), players, solvers[trackIndex]);
+        int turns = game.runRace(this.maxTurns);
+        result.addRace(players, turns, game.isGameEnded());
+    }
+
+    /**
+     * Plays a range of the races, big ranges are split in halves which are
+     * played in parallel.
+     */
+    private class RaceTask extends RecursiveTask<TournamentResult> {
+
+        /**
+         * Version of the serialized form, the tasks are never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The solvers of the tracks.
+         */
+        private final RacingLineSolver[] solvers;
+
+        /**
+         * Number of the first race of the range.
+         */
+        private final int from;
+
+        /**
+         * Number after the last race of the range.
+         */
+        private final int to;
+
+        /**
+         * Creates a task for the given range of races.
+         *
+         * @param solvers the solvers of the tracks
+         * @param from    number of the first race
+         * @param to      number after the last race
+         */
+        RaceTask(RacingLineSolver[] solvers, int from, int to) {
+            this.solvers = solvers;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Plays the races of the range.
+         *
+         * @return the results of the races of the range
+         */
+        @Override
+        protected TournamentResult compute() {
+            if (this.to - this.from <= RACES_PER_TASK) {
+                TournamentResult result = new TournamentResult();
+                for (int race = this.from; race < this.to; race++) {
+                    TournamentRunner.this.playRace(this.solvers, race, result);
+                }
+
+                return result;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            RaceTask second = new RaceTask(this.solvers, middle, this.to);
+            second.fork();
+            TournamentResult result = new RaceTask(this.solvers, this.from, middle).compute();
+
+            return result.merge(second.join());
+        }
+    }
+}
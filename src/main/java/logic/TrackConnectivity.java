@@ -0,0 +1,220 @@
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the connected components of the track cells of a board up to date
+ * while the board is edited. Two track cells are connected if there is a path
+ * of track cells between them, moving to all 8 neighbours like the path
+ * finders do. Adding a track cell merges it with its neighbours in almost
+ * constant time (union-find with path halving and union by size). Removing a
+ * track cell can split a component, which union-find cannot express, so the
+ * components are only marked as outdated and rebuilt on the next query.
+ *
+ * @author ite105705
+ */
+class TrackConnectivity {
+
+    /**
+     * Parent of each cell in the union-find forest, indexed like the states
+     * of the board. Cells which are not track have the parent -1.
+     */
+    private int[] parents;
+
+    /**
+     * Number of the cells in the component of each root.
+     */
+    private int[] sizes;
+
+    /**
+     * Number of the columns of the board.
+     */
+    private final int colCount;
+
+    /**
+     * Number of the rows of the board.
+     */
+    private final int rowCount;
+
+    /**
+     * Whether a track cell was removed since the last rebuild.
+     */
+    private boolean isOutdated;
+
+    /**
+     * Creates the components of the given track cells.
+     *
+     * @param isTrack  whether the cell with the index y * colCount + x is a
+     *                 track cell
+     * @param colCount number of the columns of the board
+     * @param rowCount number of the rows of the board
+     */
+    TrackConnectivity(boolean[] isTrack, int colCount, int rowCount) {
+        this.colCount = colCount;
+        this.rowCount = rowCount;
+        this.rebuild(isTrack);
+    }
+
+    /**
+     * Checks whether the components have to be rebuilt before the next
+     * query, because a track cell was removed.
+     *
+     * @return whether the components are outdated
+     */
+    boolean isOutdated() {
+        return this.isOutdated;
+    }
+
+    /**
+     * Rebuilds all the components from the given track cells.
+     *
+     * @param isTrack whether the cell with the index y * colCount + x is a
+     *                track cell
+     */
+    void rebuild(boolean[] isTrack) {
+        this.parents = new int[isTrack.length];
+        this.sizes = new int[isTrack.length];
+        Arrays.fill(this.parents, -1);
+        for (int index = 0; index < isTrack.length; index++) {
+            if (isTrack[index]) {
+                this.makeSet(index);
+                // Only the already visited neighbours have to be merged
+                int x = index % this.colCount;
+                int y = index / this.colCount;
+                this.unionIfTrack(index, x - 1, y);
+                this.unionIfTrack(index, x - 1, y - 1);
+                this.unionIfTrack(index, x, y - 1);
+                this.unionIfTrack(index, x + 1, y - 1);
+            }
+        }
+
+        this.isOutdated = false;
+    }
+
+    /**
+     * Called after the cell at the given coordinates became a track cell.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     */
+    void addTrack(int x, int y) {
+        int index = y * this.colCount + x;
+        if (this.isOutdated || this.parents[index] != -1) {
+            return;
+        }
+
+        this.makeSet(index);
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if (dx != 0 || dy != 0) {
+                    this.unionIfTrack(index, x + dx, y + dy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called after the cell at the given coordinates is no track cell
+     * anymore.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     */
+    void removeTrack(int x, int y) {
+        if (this.parents[y * this.colCount + x] != -1) {
+            this.isOutdated = true;
+        }
+    }
+
+    /**
+     * Checks whether the two cells are track cells of the same component.
+     * The components must not be outdated.
+     *
+     * @param firstX  x-axis value of the first cell
+     * @param firstY  y-axis value of the first cell
+     * @param secondX x-axis value of the second cell
+     * @param secondY y-axis value of the second cell
+     * @return whether there is a path of track cells between the two cells
+     */
+    boolean areConnected(int firstX, int firstY, int secondX, int secondY) {
+        if (!this.isTrack(firstX, firstY) || !this.isTrack(secondX, secondY)) {
+            return false;
+        }
+
+        return this.find(firstY * this.colCount + firstX) == this.find(secondY * this.colCount + secondX);
+    }
+
+    /**
+     * Checks whether the given coordinates are a track cell of the board.
+     *
+     * @param x x-axis value of the cell
+     * @param y y-axis value of the cell
+     * @return whether the cell is a track cell
+     */
+    private boolean isTrack(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.colCount && y < this.rowCount
+               && this.parents[y * this.colCount + x] != -1;
+    }
+
+    /**
+     * Makes the given cell a component of its own.
+     *
+     * @param index index of the cell
+     */
+    private void makeSet(int index) {
+        this.parents[index] = index;
+        this.sizes[index] = 1;
+    }
+
+    /**
+     * Merges the component of the given cell with the component of the
+     * neighbour at the given coordinates, if the neighbour is a track cell.
+     *
+     * @param index index of the cell
+     * @param x     x-axis value of the neighbour
+     * @param y     y-axis value of the neighbour
+     */
+    private void unionIfTrack(int index, int x, int y) {
+        if (this.isTrack(x, y)) {
+            this.union(index, y * this.colCount + x);
+        }
+    }
+
+    /**
+     * Merges the components of the two cells, the smaller component is
+     * attached to the bigger one.
+     *
+     * @param first  index of the first cell
+     * @param second index of the second cell
+     */
+    private void union(int first, int second) {
+        int firstRoot = this.find(first);
+        int secondRoot = this.find(second);
+        if (firstRoot != secondRoot) {
+            if (this.sizes[firstRoot] < this.sizes[secondRoot]) {
+                int swap = firstRoot;
+                firstRoot = secondRoot;
+                secondRoot = swap;
+            }
+
+            this.parents[secondRoot] = firstRoot;
+            this.sizes[firstRoot] += this.sizes[secondRoot];
+        }
+    }
+
+    /**
+     * Finds the root of the component of the given cell and halves the path
+     * to it on the way.
+     *
+     * @param index index of the cell
+     * @return index of the root
+     */
+    private int find(int index) {
+        while (this.parents[index] != index) {
+            this.parents[index] = this.parents[this.parents[index]];
+            index = this.parents[index];
+        }
+
+        return index;
+    }
+}
@@ -0,0 +1,223 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary format of a track, for boards which are too large for the JSON
+ * format of {@link RaceTrack#save()}. Only the track is stored, the players
+ * are not. A file starts with a header:
+ * <pre>
+ * int   magic number "RTRK"
+ * short version
+ * byte  direction of the start/finish line, as in the JSON format
+ * byte  flags, bit 0 is set if the track has a start/finish line
+ * int   column count
+ * int   row count
+ * int   x and y-axis value of the start and of the end of the line
+ * int   offset of each row in the data, and the length of the data
+ * </pre>
+ * The data follows, every row is a sequence of runs of cells with the same
+ * state. A run is the ordinal of the state in one byte followed by the
+ * number of its cells as an unsigned variable-length integer, seven bits
+ * per byte. All the values are big-endian.
+ * <p>
+ * A file is read through a memory map of its channel, see
+ * {@link #map(Path)}. Thanks to the offset table the cells of a row can be
+ * read without decoding the rows before it.
+ *
+ * @author ite105705
+ */
+public final class TrackFile {
+
+    /**
+     * Extension of the files.
+     */
+    public static final String EXTENSION = ".rtrk";
+
+    /**
+     * Magic number at the start of each file, "RTRK" in ASCII.
+     */
+    static final int MAGIC = 0x5254524B;
+
+    /**
+     * Version of the format which is written.
+     */
+    static final short VERSION = 1;
+
+    /**
+     * Flag of a track with a start/finish line.
+     */
+    static final int FLAG_HAS_LINE = 1;
+
+    /**
+     * Size of the header without the offset table in bytes.
+     */
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * Size of the buffer the runs are written through.
+     */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The format only has static methods.
+     */
+    private TrackFile() {
+    }
+
+    /**
+     * Writes the track of the given board to the given file. An existing
+     * file is replaced. The runs are streamed to the file through a buffer
+     * of fixed size, the header and the offset table are written last, once
+     * the offsets are known.
+     *
+     * @param board the given board
+     * @param path  path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Board board, Path path) throws IOException {
+        int colCount = board.getColCount();
+        int rowCount = board.getRowCount();
+        int[] offsets = new int[rowCount + 1];
+        int dataStart = HEADER_SIZE + Integer.BYTES * offsets.length;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(dataStart);
+            ByteBuffer data = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            long written = 0;
+            for (int y = 0; y < rowCount; y++) {
+                offsets[y] = toOffset(written + data.position());
+                int x = 0;
+                while (x < colCount) {
+                    CellState state = board.getState(x, y);
+                    int runEnd = x + 1;
+                    while (runEnd < colCount && board.getState(runEnd, y) == state) {
+                        runEnd++;
+                    }
+                    // One byte for the state, at most five for the length
+                    if (data.remaining() < 6) {
+                        written += writeFully(channel, data.flip());
+                        data.clear();
+                    }
+                    data.put((byte) state.ordinal());
+                    putVarInt(data, runEnd - x);
+                    x = runEnd;
+                }
+            }
+            written += writeFully(channel, data.flip());
+            offsets[rowCount] = toOffset(written);
+
+            TrackLine line = board.getStartAndFinishLine();
+            boolean hasLine = line.getStartPoint() != null && line.getEndPoint() != null;
+            ByteBuffer header = ByteBuffer.allocate(dataStart);
+            header.putInt(MAGIC);
+            header.putShort(VERSION);
+            header.put(Byte.parseByte(line.toString()));
+            header.put((byte) (hasLine ? FLAG_HAS_LINE : 0));
+            header.putInt(colCount);
+            header.putInt(rowCount);
+            header.putInt(hasLine ? line.getStartPoint().x() : 0);
+            header.putInt(hasLine ? line.getStartPoint().y() : 0);
+            header.putInt(hasLine ? line.getEndPoint().x() : 0);
+            header.putInt(hasLine ? line.getEndPoint().y() : 0);
+            for (int offset : offsets) {
+                header.putInt(offset);
+            }
+            channel.position(0);
+            writeFully(channel, header.flip());
+        }
+    }
+
+    /**
+     * Maps the given file into memory. The returned track reads its cells
+     * straight from the map, nothing is decoded in advance.
+     *
+     * @param path path of the file
+     * @return the mapped track
+     * @throws IOException if the file cannot be read or is not a track file
+     *                     of a known version
+     */
+    public static MappedTrack map(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The track file is too large: " + path);
+            }
+            // The map stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a track file: " + path);
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unknown version " + buffer.getShort(4) + " of the track file: " + path);
+        }
+
+        return new MappedTrack(buffer);
+    }
+
+    /**
+     * Reads the given file and decodes its track into a board.
+     *
+     * @param path path of the file
+     * @return the board of the track
+     * @throws IOException if the file cannot be read or is not a track file
+     *                     of a known version
+     */
+    public static Board read(Path path) throws IOException {
+        return map(path).toBoard();
+    }
+
+    /**
+     * Writes all the remaining bytes of the given buffer to the channel.
+     *
+     * @param channel the channel of the file
+     * @param buffer  the buffer, flipped for reading
+     * @return number of the written bytes
+     * @throws IOException if the bytes cannot be written
+     */
+    private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        return count;
+    }
+
+    /**
+     * Converts the position of a row in the data into its offset.
+     *
+     * @param position the position in the data
+     * @return the offset
+     * @throws IOException if the data is too large for the format
+     */
+    private static int toOffset(long position) throws IOException {
+        if (position > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IOException("The track is too large for a track file");
+        }
+
+        return (int) position;
+    }
+
+    /**
+     * Writes the given non-negative value as a variable-length integer.
+     *
+     * @param buffer the buffer to write into
+     * @param value  the given value
+     */
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
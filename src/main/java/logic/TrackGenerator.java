@@ -0,0 +1,258 @@
+package logic;
+
+import java.util.Random;
+
+/**
+ * Generates closed race tracks of any size, for example to test and measure
+ * the board, the game and the path finders on big tracks. The generated
+ * tracks only depend on the seed and the size, so a track can be reproduced
+ * at any time.
+ * <p>
+ * The middle line of a track is a closed curve around the center of the
+ * board. Its control points lie on an ellipse, each of them at a random
+ * distance to the center. Control points which are much closer to the center
+ * than their neighbours form hairpins, small alternating offsets form
+ * chicanes. The curve through the control points is painted with a round
+ * brush whose width changes along the track. The start/finish line is placed
+ * horizontally across the track at its rightmost point.
+ *
+ * @author ite105705
+ */
+public class TrackGenerator {
+
+    /**
+     * Minimum number of the columns and rows of a generated board.
+     */
+    public static final int MIN_SIZE = 20;
+
+    /**
+     * Minimum width of the track.
+     */
+    private static final int MIN_TRACK_WIDTH = 3;
+
+    /**
+     * Maximum number of the tries to generate a track with the random
+     * control points, afterwards a track without bends is generated.
+     */
+    private static final int MAX_TRIES = 8;
+
+    /**
+     * Probability of a control point to form a hairpin.
+     */
+    private static final double HAIRPIN_PROBABILITY = 0.2;
+
+    /**
+     * Probability of a control point to form a chicane with its successor.
+     */
+    private static final double CHICANE_PROBABILITY = 0.25;
+
+    /**
+     * Seed of the generator.
+     */
+    private final long seed;
+
+    /**
+     * Creates a generator with the given seed.
+     *
+     * @param seed the given seed
+     */
+    public TrackGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generates a board with a closed track and a drawn start/finish line.
+     *
+     * @param colCount number of the columns of the board
+     * @param rowCount number of the rows of the board
+     * @return the generated board
+     * @throws IllegalArgumentException if the board would be smaller than
+     *                                  {@link #MIN_SIZE} in one direction
+     */
+    public Board generate(int colCount, int rowCount) {
+        if (colCount < MIN_SIZE || rowCount < MIN_SIZE) {
+            throw new IllegalArgumentException("The board has to be at least " + MIN_SIZE + "x" + MIN_SIZE);
+        }
+
+        Random random = new Random(this.seed ^ ((long) colCount << 32 | rowCount));
+        for (int i = 0; i < MAX_TRIES; i++) {
+            Board board = this.generate(colCount, rowCount, random, true);
+            if (board.hasValidPath()) {
+                return board;
+            }
+        }
+
+        return this.generate(colCount, rowCount, random, false);
+    }
+
+    /**
+     * Generates a board with a closed track and returns it in the JSON format
+     * of {@link RaceTrack#save()}, without any players.
+     *
+     * @param colCount number of the columns of the board
+     * @param rowCount number of the rows of the board
+     * @return the JSON string of the generated board
+     * @throws IllegalArgumentException if the board would be smaller than
+     *                                  {@link #MIN_SIZE} in one direction
+     */
+    public String generateJson(int colCount, int rowCount) {
+        // Saving a race without players does not use the gui
+        return new RaceTrack(null, this.generate(colCount, rowCount), BoardUpdate.NONE).save();
+    }
+
+    /**
+     * Generates one board from the next random values.
+     *
+     * @param colCount  number of the columns of the board
+     * @param rowCount  number of the rows of the board
+     * @param random    source of the random values
+     * @param withBends whether the control points are placed randomly, otherwise
+     *                  the track is an ellipse of constant width
+     * @return the generated board, its track is not checked yet
+     */
+    private Board generate(int colCount, int rowCount, Random random, boolean withBends) {
+        int maxWidth = Math.max(MIN_TRACK_WIDTH, Math.min(colCount, rowCount) / 12);
+        double centerX = (colCount - 1) / 2.0;
+        double centerY = (rowCount - 1) / 2.0;
+        // The brush must not touch the border of the board
+        double radiusX = centerX - maxWidth / 2.0 - 1;
+        double radiusY = centerY - maxWidth / 2.0 - 1;
+
+        int controlPointCount = 8 + random.nextInt(9);
+        double[] controlX = new double[controlPointCount];
+        double[] controlY = new double[controlPointCount];
+        double[] widths = new double[controlPointCount];
+        for (int i = 0; i < controlPointCount; i++) {
+            double angle = 2 * Math.PI * (i + (withBends ? 0.6 * (random.nextDouble() - 0.5) : 0)) / controlPointCount;
+            double scale = withBends ? 0.75 + 0.25 * random.nextDouble() : 1;
+            if (withBends && i != 0 && random.nextDouble() < HAIRPIN_PROBABILITY) {
+                scale *= 0.35 + 0.15 * random.nextDouble();
+            } else if (withBends && i != 0 && random.nextDouble() < CHICANE_PROBABILITY) {
+                scale *= i % 2 == 0 ? 0.9 : 0.8;
+            }
+
+            // The first control point stays on the ellipse, the line is placed close to it
+            if (i == 0) {
+                angle = 0;
+                scale = 1;
+            }
+
+            controlX[i] = centerX + radiusX * scale * StrictMath.cos(angle);
+            controlY[i] = centerY + radiusY * scale * StrictMath.sin(angle);
+            widths[i] = withBends
+                    ? MIN_TRACK_WIDTH + (maxWidth - MIN_TRACK_WIDTH) * random.nextDouble()
+                    : maxWidth;
+        }
+
+        boolean[] isTrack = new boolean[colCount * rowCount];
+        double rightmostX = Double.NEGATIVE_INFINITY;
+        double rightmostY = centerY;
+        for (int i = 0; i < controlPointCount; i++) {
+            int previous = (i + controlPointCount - 1) % controlPointCount;
+            int next = (i + 1) % controlPointCount;
+            int afterNext = (i + 2) % controlPointCount;
+            double length = Math.hypot(controlX[next] - controlX[i], controlY[next] - controlY[i]);
+            int steps = Math.max(1, (int) Math.ceil(length * 2));
+            for (int step = 0; step < steps; step++) {
+                double t = (double) step / steps;
+                double x = catmullRom(controlX[previous], controlX[i], controlX[next], controlX[afterNext], t);
+                double y = catmullRom(controlY[previous], controlY[i], controlY[next], controlY[afterNext], t);
+                double width = widths[i] + (widths[next] - widths[i]) * t;
+                paint(isTrack, colCount, rowCount, x, y, width / 2);
+
+                if (x > rightmostX) {
+                    rightmostX = x;
+                    rightmostY = y;
+                }
+            }
+        }
+
+        Board board = new Board(colCount, rowCount);
+        for (int index = 0; index < isTrack.length; index++) {
+            if (isTrack[index]) {
+                board.turnIntoTrack(new Point(index % colCount, index / colCount));
+            }
+        }
+
+        TrackLine line = createLine(isTrack, colCount, (int) Math.round(rightmostX), (int) Math.round(rightmostY));
+        if (line != null) {
+            board.turnIntoLine(line);
+        }
+
+        return board;
+    }
+
+    /**
+     * Creates a horizontal start/finish line across the track cells of the
+     * given row which contain the given cell.
+     *
+     * @param isTrack  the painted track cells
+     * @param colCount number of the columns of the board
+     * @param x        x-axis value of a cell on the track
+     * @param y        y-axis value of a cell on the track
+     * @return the line or null, if the given cell is not on the track
+     */
+    private static TrackLine createLine(boolean[] isTrack, int colCount, int x, int y) {
+        int rowStart = y * colCount;
+        if (!isTrack[rowStart + x]) {
+            return null;
+        }
+
+        int startX = x;
+        while (startX > 0 && isTrack[rowStart + startX - 1]) {
+            startX--;
+        }
+        int endX = x;
+        while (endX < colCount - 1 && isTrack[rowStart + endX + 1]) {
+            endX++;
+        }
+
+        return new TrackLine(new Point(startX, y), new Point(endX, y), LineDirection.TOP_DOWN);
+    }
+
+    /**
+     * Paints a disc of track cells around the given center.
+     *
+     * @param isTrack  the painted track cells
+     * @param colCount number of the columns of the board
+     * @param rowCount number of the rows of the board
+     * @param centerX  x-axis value of the center
+     * @param centerY  y-axis value of the center
+     * @param radius   radius of the disc
+     */
+    private static void paint(boolean[] isTrack, int colCount, int rowCount,
+                              double centerX, double centerY, double radius) {
+        int minY = Math.max(0, (int) Math.floor(centerY - radius));
+        int maxY = Math.min(rowCount - 1, (int) Math.ceil(centerY + radius));
+        int minX = Math.max(0, (int) Math.floor(centerX - radius));
+        int maxX = Math.min(colCount - 1, (int) Math.ceil(centerX + radius));
+        double squaredRadius = radius * radius;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                double dx = x - centerX;
+                double dy = y - centerY;
+                if (dx * dx + dy * dy <= squaredRadius) {
+                    isTrack[y * colCount + x] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Interpolates between p1 and p2 with a Catmull-Rom spline, so the curve
+     * passes through all the control points without corners.
+     *
+     * @param p0 value of the control point before p1
+     * @param p1 value at t = 0
+     * @param p2 value at t = 1
+     * @param p3 value of the control point after p2
+     * @param t  position between p1 and p2 in [0, 1]
+     * @return the interpolated value
+     */
+    private static double catmullRom(double p0, double p1, double p2, double p3, double t) {
+        double t2 = t * t;
+        double t3 = t2 * t;
+
+        return 0.5 * (2 * p1 + (p2 - p0) * t + (2 * p0 - 5 * p1 + 4 * p2 - p3) * t2 + (3 * p1 - p0 - 3 * p2 + p3) * t3);
+    }
+}
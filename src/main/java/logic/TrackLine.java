@@ -151,27 +151,69 @@ public class TrackLine {
      * @param point point of the cell to turn into track
      */
     public void calculate(Cell[][] cells, Point point) {
+        this.calculate(cells.length, cells[0].length, (x, y) -> cells[x][y].getCurrentState(), point);
+    }
+
+    /**
+     * Calculates the start and the end point of the line based
+     * on the cells of the given board and the given clicked cell,
+     * see {@link #calculate(Cell[][], Point)}.
+     *
+     * @param board the given board of the track field.
+     * @param point point of the cell to turn into track
+     */
+    public void calculate(Board board, Point point) {
+        this.calculate(board.getColCount(), board.getRowCount(), board::getState, point);
+    }
+
+    /**
+     * Access to the states of the cells by their x and y-axis value, the
+     * coordinates are passed as ints, so no call boxes them.
+     */
+    @FunctionalInterface
+    private interface CellStates {
+
+        /**
+         * Returns the state of the cell at the given coordinates.
+         *
+         * @param x x-axis value of the cell
+         * @param y y-axis value of the cell
+         * @return state of the cell
+         */
+        CellState getState(int x, int y);
+    }
+
+    /**
+     * Calculates the start and the end point of the line based
+     * on the given access to the states of the cells.
+     *
+     * @param colCount number of the columns of the track field
+     * @param rowCount number of the rows of the track field
+     * @param states   returns the state of the cell at the given x and y
+     * @param point    point of the cell to turn into track
+     */
+    private void calculate(int colCount, int rowCount, CellStates states, Point point) {
         boolean verticallyGravelMet = false;
         int x = point.x();
         int y = point.y();
         int verticalTrackCells = 0;
         int verticalStartIndex = y;
         int verticalEndIndex = y;
-        for (int row = y + 1; row < cells[x].length && !verticallyGravelMet; row++) {
-            if (cells[x][row].isGravel()) {
+        for (int row = y + 1; row < rowCount && !verticallyGravelMet; row++) {
+            if (states.getState(x, row) == CellState.GRAVEL) {
                 verticallyGravelMet = true;
                 verticalEndIndex = row - 1;
-            } else if (cells[x][row].isTrack()) {
+            } else if (states.getState(x, row) == CellState.TRACK) {
                 verticalEndIndex = row;
                 verticalTrackCells++;
             }
         }
         verticallyGravelMet = false;
         for (int row = y - 1; row >= 0 && !verticallyGravelMet; row--) {
-            if (cells[x][row].isGravel()) {
+            if (states.getState(x, row) == CellState.GRAVEL) {
                 verticallyGravelMet = true;
                 verticalStartIndex = row + 1;
-            } else if (cells[x][row].isTrack()) {
+            } else if (states.getState(x, row) == CellState.TRACK) {
                 verticalStartIndex = row;
                 verticalTrackCells++;
             }
@@ -181,21 +223,21 @@ public class TrackLine {
         int horizontalTrackCells = 0;
         int horizontalStartIndex = x;
         int horizontalEndIndex = x;
-        for (int col = x + 1; col < cells.length && !horizontallyGravelMet; col++) {
-            if (cells[col][y].isGravel()) {
+        for (int col = x + 1; col < colCount && !horizontallyGravelMet; col++) {
+            if (states.getState(col, y) == CellState.GRAVEL) {
                 horizontallyGravelMet = true;
                 horizontalEndIndex = col - 1;
-            } else if (cells[col][y].isTrack()) {
+            } else if (states.getState(col, y) == CellState.TRACK) {
                 horizontalEndIndex = col;
                 horizontalTrackCells++;
             }
         }
         horizontallyGravelMet = false;
         for (int col = x - 1; col >= 0 && !horizontallyGravelMet; col--) {
-            if (cells[col][y].isGravel()) {
+            if (states.getState(col, y) == CellState.GRAVEL) {
                 horizontallyGravelMet = true;
                 horizontalStartIndex = col + 1;
-            } else if (cells[col][y].isTrack()) {
+            } else if (states.getState(col, y) == CellState.TRACK) {
                 horizontalStartIndex = col;
                 horizontalTrackCells++;
             }
@@ -407,4 +449,58 @@ public class TrackLine {
             default -> throw new IllegalStateException("Unexpected value: " + direction);
         };
     }
+
+    /**
+     * Checks whether the move between the given positions crosses the line.
+     * The line lies between its own cells and the cells in its direction, so
+     * a car which stops on the line has not crossed it yet. The crossing
+     * point has to be within the length of the line. The result only depends
+     * on the two positions, so the laps of a car are counted with one check
+     * per move.
+     *
+     * @param fromX x-axis value of the start of the move
+     * @param fromY y-axis value of the start of the move
+     * @param toX   x-axis value of the end of the move
+     * @param toY   y-axis value of the end of the move
+     * @return 1 if the line is crossed in its direction, -1 if it is crossed
+     * against its direction and 0 otherwise
+     */
+    public int crossing(int fromX, int fromY, int toX, int toY) {
+        boolean isVertical = this.direction == LineDirection.LEFT_RIGHT
+                             || this.direction == LineDirection.RIGHT_LEFT;
+        int sign = (this.direction == LineDirection.LEFT_RIGHT
+                    || this.direction == LineDirection.TOP_DOWN) ? 1 : -1;
+
+        // Coordinates across the line, mirrored so the direction of the line is always positive
+        long lineAcross = sign * (isVertical ? this.startPoint.x() : this.startPoint.y());
+        long fromAcross = sign * (isVertical ? fromX : fromY);
+        long toAcross = sign * (isVertical ? toX : toY);
+
+        int crossing;
+        if (fromAcross <= lineAcross && toAcross > lineAcross) {
+            crossing = 1;
+        } else if (fromAcross > lineAcross && toAcross <= lineAcross) {
+            crossing = -1;
+        } else {
+            return 0;
+        }
+
+        // Coordinates along the line, doubled so the border between two cells is an integer
+        long fromAlong = 2L * (isVertical ? fromY : fromX);
+        long toAlong = 2L * (isVertical ? toY : toX);
+        long lineStart = 2L * (isVertical ? this.startPoint.y() : this.startPoint.x());
+        long lineEnd = 2L * (isVertical ? this.endPoint.y() : this.endPoint.x());
+        long minAlong = Math.min(lineStart, lineEnd) - 1;
+        long maxAlong = Math.max(lineStart, lineEnd) + 1;
+
+        // Position along the line where the move crosses it, multiplied by the length of the move
+        long denominator = 2 * (toAcross - fromAcross);
+        long numerator = fromAlong * denominator + (2 * lineAcross + 1 - 2 * fromAcross) * (toAlong - fromAlong);
+        if (denominator < 0) {
+            denominator = -denominator;
+            numerator = -numerator;
+        }
+
+        return (minAlong * denominator <= numerator && numerator <= maxAlong * denominator) ? crossing : 0;
+    }
 }
@@ -0,0 +1,339 @@
+package logic;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Loads races in the JSON format of {@link RaceTrack#save()}. The file is
+ * read as a stream, the states of the cells are written straight into the
+ * rows of the board, so neither the JSON tree nor the cells of the track
+ * are created on the way. The cars of the active players are placed on the
+ * loaded board.
+ *
+ * @author ite105705
+ */
+public final class TrackLoader {
+
+    /**
+     * Number of the cells a first row has space for, before its length is
+     * known.
+     */
+    private static final int INITIAL_ROW_CAPACITY = 64;
+
+    /**
+     * The loader only has static methods.
+     */
+    private TrackLoader() {
+    }
+
+    /**
+     * Loads the race of the given file. A file with the extension of
+     * {@link TrackFile} only holds a track, the race has no players then.
+     *
+     * @param path path of the file
+     * @return the loaded race
+     * @throws IOException           if the file cannot be read or is no JSON
+     * @throws IllegalStateException if the content is not a race
+     */
+    public static LoadedRace load(Path path) throws IOException {
+        if (path.getFileName().toString().endsWith(TrackFile.EXTENSION)) {
+            return new LoadedRace(TrackFile.read(path), new Player[0], 0);
+        }
+
+        try (Reader reader = Files.newBufferedReader(path)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Loads the race of the given reader.
+     *
+     * @param reader the given reader, it is not closed
+     * @return the loaded race
+     * @throws IOException           if the reader fails or its content is no
+     *                               JSON
+     * @throws IllegalStateException if the content is not a race
+     */
+    public static LoadedRace load(Reader reader) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        byte[][] rows = null;
+        LineDirection direction = null;
+        List<Player> players = new ArrayList<>();
+        int currentPlayerIndex = 0;
+        int lapCount = 1;
+        List<TrackLine> checkpoints = new ArrayList<>();
+        // Races saved before the flag was written were always placed completely
+        boolean placementEnded = true;
+        List<Integer> winners = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "track" -> rows = readRows(json);
+                case "direction" -> direction = TrackLine.toLineDirection(Integer.toString(json.nextInt()));
+                case "player" -> readPlayers(json, players);
+                case "currentPlayer" -> currentPlayerIndex = json.nextInt();
+                case "laps" -> lapCount = json.nextInt();
+                case "checkpoints" -> readCheckpoints(json, checkpoints);
+                case "placementEnded" -> placementEnded = json.nextBoolean();
+                case "winners" -> {
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        winners.add(json.nextInt());
+                    }
+                    json.endArray();
+                }
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (rows == null || rows.length == 0 || direction == null) {
+            throw new IllegalStateException("The race has no track or no direction");
+        }
+
+        Board board = new Board(rows, direction);
+        setLine(board, rows, direction);
+        for (int i = 0; i < players.size(); i++) {
+            // Races saved during the placement have players without a car
+            if (players.get(i).getPosition() != null) {
+                board.placeCar(players.get(i).getPosition(), i);
+            }
+        }
+
+        return new LoadedRace(board, players.toArray(new Player[0]), currentPlayerIndex, lapCount, checkpoints,
+                              placementEnded && !players.isEmpty(), winners);
+    }
+
+    /**
+     * Reads the states of the cells row by row.
+     *
+     * @param json the reader, positioned on the array of the rows
+     * @return the rows of the states
+     * @throws IOException if the reader fails
+     */
+    private static byte[][] readRows(JsonReader json) throws IOException {
+        List<byte[]> rows = new ArrayList<>();
+        int colCount = -1;
+
+        json.beginArray();
+        while (json.hasNext()) {
+            byte[] row = new byte[colCount < 0 ? INITIAL_ROW_CAPACITY : colCount];
+            int col = 0;
+            json.beginArray();
+            while (json.hasNext()) {
+                if (col == row.length) {
+                    if (colCount >= 0) {
+                        throw new IllegalStateException("The rows of the track have different lengths");
+                    }
+                    row = Arrays.copyOf(row, row.length * 2);
+                }
+                row[col++] = toState(json.nextInt());
+            }
+            json.endArray();
+
+            if (colCount < 0) {
+                colCount = col;
+                row = Arrays.copyOf(row, colCount);
+            } else if (col != colCount) {
+                throw new IllegalStateException("The rows of the track have different lengths");
+            }
+            rows.add(row);
+        }
+        json.endArray();
+
+        return rows.toArray(new byte[0][]);
+    }
+
+    /**
+     * Converts a saved state into the value of a row, cars are stored as
+     * track cells.
+     *
+     * @param value the saved state
+     * @return ordinal of the state
+     */
+    private static byte toState(int value) {
+        return switch (value) {
+            case 0 -> (byte) CellState.GRAVEL.ordinal();
+            case 1, 3 -> (byte) CellState.TRACK.ordinal();
+            case 2 -> (byte) CellState.LINE.ordinal();
+            default -> throw new IllegalStateException("Unexpected value: " + value);
+        };
+    }
+
+    /**
+     * Reads the active players, the inactive ones are skipped. The fields
+     * of the full snapshot of {@link RaceWriter} are optional, so races
+     * saved without them are loaded as well.
+     *
+     * @param json    the reader, positioned on the array of the players
+     * @param players the list the players are added to
+     * @throws IOException if the reader fails
+     */
+    private static void readPlayers(JsonReader json, List<Player> players) throws IOException {
+        json.beginArray();
+        for (int index = 0; json.hasNext(); index++) {
+            boolean isActive = false;
+            boolean isAI = false;
+            String name = "";
+            Point current = null;
+            Point last = null;
+            int lap = 0;
+            Point speed = null;
+            MovementDirection direction = null;
+            Integer lineBalance = null;
+            int checkpoint = 0;
+            int crashCount = 0;
+            boolean isWinner = false;
+            MoveHistory history = null;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "active" -> isActive = json.nextBoolean();
+                    case "ai" -> isAI = json.nextBoolean();
+                    case "name" -> name = json.nextString();
+                    case "current" -> current = readPoint(json);
+                    case "last" -> last = readPoint(json);
+                    case "lap" -> lap = json.nextInt();
+                    case "speed" -> speed = readPoint(json);
+                    case "movement" -> direction = MovementDirection.valueOf(json.nextString());
+                    case "lineBalance" -> lineBalance = json.nextInt();
+                    case "checkpoint" -> checkpoint = json.nextInt();
+                    case "crashes" -> crashCount = json.nextInt();
+                    case "winner" -> isWinner = json.nextBoolean();
+                    case "history" -> history = readHistory(json);
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+
+            if (isActive) {
+                Player player = new Player(name, Player.toPlayerStatus(true, isAI), index);
+                player.setPosition(current);
+                player.setLastPosition(last);
+                player.setCrossedLine(lap);
+                if (lineBalance != null) {
+                    player.setLineBalance(lineBalance);
+                    player.setNextCheckpoint(checkpoint);
+                }
+                if (speed != null) {
+                    player.setSpeed(speed);
+                }
+                player.setMovementDirection(direction);
+                player.setCrashCount(crashCount);
+                player.setIsWinner(isWinner);
+                if (history != null) {
+                    player.setMoves(history);
+                } else if (current != null) {
+                    player.addMove(current);
+                }
+                players.add(player);
+            }
+        }
+        json.endArray();
+    }
+
+    /**
+     * Reads the checkpoints, each with its start, end and direction.
+     *
+     * @param json        the reader, positioned on the array of the
+     *                    checkpoints
+     * @param checkpoints the list the checkpoints are added to
+     * @throws IOException if the reader fails
+     */
+    private static void readCheckpoints(JsonReader json, List<TrackLine> checkpoints) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            Point start = null;
+            Point end = null;
+            LineDirection direction = null;
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "start" -> start = readPoint(json);
+                    case "end" -> end = readPoint(json);
+                    case "direction" -> direction = TrackLine.toLineDirection(Integer.toString(json.nextInt()));
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+
+            if (start == null || end == null || direction == null) {
+                throw new IllegalStateException("A checkpoint needs a start, an end and a direction");
+            }
+            checkpoints.add(new TrackLine(start, end, direction));
+        }
+        json.endArray();
+    }
+
+    /**
+     * Reads a history of moves encoded by {@link MoveHistory#toBytes()} in
+     * Base64.
+     *
+     * @param json the reader, positioned on the string of the history
+     * @return the history
+     * @throws IOException           if the reader fails
+     * @throws IllegalStateException if the string is no valid history
+     */
+    private static MoveHistory readHistory(JsonReader json) throws IOException {
+        try {
+            return MoveHistory.fromBytes(Base64.getDecoder().decode(json.nextString()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid history of moves", e);
+        }
+    }
+
+    /**
+     * Reads a point which is stored as an array of its x and y-axis value.
+     *
+     * @param json the reader, positioned on the array
+     * @return the point
+     * @throws IOException if the reader fails
+     */
+    private static Point readPoint(JsonReader json) throws IOException {
+        json.beginArray();
+        Point point = new Point(json.nextInt(), json.nextInt());
+        json.endArray();
+
+        return point;
+    }
+
+    /**
+     * Sets the start/finish line of the board from the first to the last
+     * line cell, if the track has any.
+     *
+     * @param board     the loaded board
+     * @param rows      the states of the cells
+     * @param direction the direction of the line
+     */
+    private static void setLine(Board board, byte[][] rows, LineDirection direction) {
+        byte line = (byte) CellState.LINE.ordinal();
+        Point start = null;
+        Point end = null;
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < rows[y].length; x++) {
+                if (rows[y][x] == line) {
+                    if (start == null) {
+                        start = new Point(x, y);
+                    }
+                    end = new Point(x, y);
+                }
+            }
+        }
+
+        if (start != null) {
+            TrackLine trackLine = new TrackLine(start, end, direction);
+            trackLine.setIsDrawn(true);
+            board.setStartAndFinishLine(trackLine);
+        }
+    }
+}
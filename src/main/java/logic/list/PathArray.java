@@ -0,0 +1,209 @@
+package logic.list;
+
+import logic.Cell;
+import logic.Point;
+
+/**
+ * Array backed path of board cells. In contrast to the recursive
+ * {@link PathList} every cell can be accessed by its index in constant time
+ * and the size is known without walking the path. Appending and inserting at
+ * the front are amortised constant time, because the backing array grows by
+ * doubling and keeps free slots on both ends.
+ *
+ * @author ite105705
+ */
+public class PathArray {
+
+    /**
+     * Capacity of a newly created path.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Backing array of the path. The cells of the path are stored in the
+     * range from {@code first} (inclusive) to {@code first + size} (exclusive).
+     */
+    private Cell[] cells;
+
+    /**
+     * Index of the first cell of the path in the backing array.
+     */
+    private int first;
+
+    /**
+     * Number of cells in the path.
+     */
+    private int size;
+
+    /**
+     * Constructor that creates an empty path.
+     */
+    public PathArray() {
+        this.cells = new Cell[INITIAL_CAPACITY];
+        this.first = INITIAL_CAPACITY / 2;
+        this.size = 0;
+    }
+
+    /**
+     * Creates a path with the cells of the given path list in the same order.
+     *
+     * @param pathList the path list to copy
+     * @return the new path
+     */
+    public static PathArray of(PathList pathList) {
+        return pathList.toPathArray();
+    }
+
+    /**
+     * Determines if the path is empty.
+     *
+     * @return true, if the path is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Determines the size of the path. 0 for the empty path.
+     *
+     * @return size of the path
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Retrieves the cell at the given index. Results in null if the index is
+     * outside the path, just like {@link PathList#getAt(int)}.
+     *
+     * @param index The 0 based index
+     * @return The cell at the index or null, if there is no cell at the index
+     */
+    public Cell getAt(int index) {
+        return index >= 0 && index < this.size ? this.cells[this.first + index] : null;
+    }
+
+    /**
+     * Returns the first cell of the path.
+     *
+     * @return the first cell of the path or null, if the path is empty
+     */
+    public Cell getFirstElement() {
+        return this.getAt(0);
+    }
+
+    /**
+     * Appends the given cell to the end of the path.
+     *
+     * @param payload the cell that should be appended to the path
+     */
+    public void append(Cell payload) {
+        if (payload != null) {
+            if (this.first + this.size == this.cells.length) {
+                this.grow();
+            }
+
+            this.cells[this.first + this.size] = payload;
+            this.size++;
+        }
+    }
+
+    /**
+     * Adds the given cell to the front of the path.
+     *
+     * @param payload the cell that should be added to the front of the path
+     */
+    public void insertAtFront(Cell payload) {
+        if (payload != null) {
+            if (this.first == 0) {
+                this.grow();
+            }
+
+            this.first--;
+            this.cells[this.first] = payload;
+            this.size++;
+        }
+    }
+
+    /**
+     * Determines if the path contains a given cell.
+     *
+     * @param payload cell to be checked for
+     * @return true, if the cell is contained in the path
+     */
+    public boolean contains(Cell payload) {
+        for (int i = this.first; i < this.first + this.size; i++) {
+            if (this.cells[i].equals(payload)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Converts the path into an array of positions.
+     *
+     * @return Array of positions
+     */
+    public Point[] toPositionArray() {
+        Point[] positions = new Point[this.size];
+        for (int i = 0; i < this.size; i++) {
+            positions[i] = this.cells[this.first + i].getPosition();
+        }
+
+        return positions;
+    }
+
+    /**
+     * Converts the path into a path list for code that still works with
+     * the linked list.
+     *
+     * @return a path list with the cells of this path in the same order
+     */
+    public PathList toPathList() {
+        PathList pathList = new PathList();
+        for (int i = this.first + this.size - 1; i >= this.first; i--) {
+            pathList.insertAtFront(this.cells[i]);
+        }
+
+        return pathList;
+    }
+
+    /**
+     * Concatenates all the positions of the path seperated through ` -> `,
+     * the same way as {@link PathList#toString()}. Results in "EMPTY" for the
+     * empty path.
+     *
+     * @return positions of the path seperated through ` -> `
+     */
+    @Override
+    public String toString() {
+        if (this.isEmpty()) {
+            return "EMPTY";
+        }
+
+        StringBuilder output = new StringBuilder();
+        for (int i = this.first; i < this.first + this.size; i++) {
+            if (i != this.first) {
+                output.append(" -> ");
+            }
+            output.append(this.cells[i].getPosition());
+        }
+
+        return output.toString();
+    }
+
+    /**
+     * Doubles the capacity of the backing array and centers the cells of the
+     * path in it, so that there are free slots on both ends afterwards.
+     */
+    private void grow() {
+        int newCapacity = this.cells.length * 2;
+        int newFirst = (newCapacity - this.size) / 2;
+        Cell[] newCells = new Cell[newCapacity];
+        System.arraycopy(this.cells, this.first, newCells, newFirst, this.size);
+        this.cells = newCells;
+        this.first = newFirst;
+    }
+}
@@ -162,6 +162,23 @@ public class PathList {
         this.head = this.head.remove(cell);
     }
 
+    /**
+     * Converts the path list into an array backed path with constant time
+     * access to its cells.
+     *
+     * @return the array backed path with the cells of this list in the same order
+     */
+    public PathArray toPathArray() {
+        PathArray pathArray = new PathArray();
+        CellListInterface currentElement = this.head;
+        while (currentElement instanceof CellListElement) {
+            pathArray.append(currentElement.getPayload());
+            currentElement = currentElement.getNext();
+        }
+
+        return pathArray;
+    }
+
     /**
      * Creates a new copy of path list with all the elements of the current one
      *
@@ -1,8 +1,6 @@
 package logic.pathfinding;
 
 import logic.Board;
-import logic.Cell;
-import logic.CellState;
 import logic.Point;
 import logic.list.PathList;
 
@@ -10,7 +8,8 @@ import java.security.InvalidParameterException;
 
 /**
  * Class used for determining the paths on a playing field leading from one
- * point to another by the use of the dijkstra algorithm.
+ * point to another by the use of the dijkstra algorithm. The search state is
+ * kept in a {@link SearchContext}, the board is only read.
  *
  * @author ite105705
  */
@@ -23,109 +22,80 @@ public class Dijkstra extends PathFinder {
             throw new InvalidParameterException("Invalid start or end position");
         }
 
-        /* 1.1
-        Creates an empty list as a queue needToBeVisited and adds the start to it. The queue
-        contains the positions that still need to be checked/visited. We start
-        with the start node: The parent node of the start node is null.
-         */
-        Cell startCell = board.getCellAtPosition(start);
-        startCell.setParentCell(null);
-        PathList needToBeVisited = new PathList();
-        needToBeVisited.insertAtFront(startCell);
-
-        /* 1.2
-        Creates a list as queue alreadyVisited for already checked/visited nodes and adds
-        the start node to it (otherwise we might accidentally create a loop).
-         */
-        PathList alreadyVisited = new PathList();
-        alreadyVisited.insertAtFront(startCell);
-
-        // List to hold the found path
-        PathList foundPath = new PathList();
-        boolean pathFound = false;
+        int colCount = board.getColCount();
+        int startIndex = start.y() * colCount + start.x();
+        int endIndex = end.y() * colCount + end.x();
+        SearchContext context = SearchContext.acquire(colCount * board.getRowCount());
+        try {
+            /* 1.1
+            Uses the queue of the search context as needToBeVisited and adds the start to it. The queue
+            contains the positions that still need to be checked/visited. We start
+            with the start node: The start node has no parent node.
+             */
+            context.enqueue(startIndex);
 
-        // 2. As long as needToBeVisited is not empty and no path has been found yet continues
-        while (!needToBeVisited.isEmpty() && !pathFound) {
-            /* 3.
-            Selects the first node from needToBeVisited as the node to checked (cellToBeChecked)
-            and removes it from needToBeVisited
+            /* 1.2
+            Marks the start node as already visited in the search context (otherwise we might
+            accidentally create a loop).
              */
-            Cell cellToBeChecked = needToBeVisited.getFirstElement();
-            needToBeVisited.removeAtFirst();
+            context.visit(startIndex, SearchContext.NO_PARENT, 0);
 
-            if (cellToBeChecked.isTrack()) { // We cannot move from CANYON cells
-                // Gets the neighbours of cellToBeChecked
-                Cell[] neighbours = board.getNeighbours(cellToBeChecked.getPosition());
+            // List to hold the found path
+            PathList foundPath = new PathList();
+            boolean pathFound = false;
 
-                /* 4.
-                Checks all neighbours (neighbours are only vertically/horizontally
-                neighboured, never diagonally).
+            // 2. As long as needToBeVisited is not empty and no path has been found yet continues
+            while (!context.isQueueEmpty() && !pathFound) {
+                /* 3.
+                Selects the first node from needToBeVisited as the node to checked (cellToBeChecked)
+                and removes it from needToBeVisited
                  */
-                for (Cell currentNeighbour : neighbours) {
-                    /* 4.1
-                    If a neighbour node (currentNeighbour) has not yet been checked, adds it to alreadyVisited
-                    and determine if it can be passed.
-                     */
-                    if (!alreadyVisited.contains(currentNeighbour)) {
-                        alreadyVisited.append(currentNeighbour);
+                int cellToBeChecked = context.dequeue();
+                int x = cellToBeChecked % colCount;
+                int y = cellToBeChecked / colCount;
 
-                        /* 5.
-                        If currentNeighbour can be passed, then 6. Sets the parent node of currentNeighbour
-                        to cellToBeChecked, adds currentNeighbour to needToBeVisited and check if currentNeighbour
-                        is the end of the path. If yes, a path has been found.
+                if (board.isTrack(x, y)) { // We cannot move from CANYON cells
+                    /* 4.
+                    Checks all neighbours (including the diagonal ones).
+                     */
+                    for (int i = 0; i < NEIGHBOUR_DX.length; i++) {
+                        int neighbourX = x + NEIGHBOUR_DX[i];
+                        int neighbourY = y + NEIGHBOUR_DY[i];
+                        int currentNeighbour = neighbourY * colCount + neighbourX;
+
+                        /* 4.1
+                        If a neighbour node (currentNeighbour) has not yet been checked, marks it as visited
+                        and determine if it can be passed.
                          */
-                        currentNeighbour.setParentCell(cellToBeChecked);
-                        needToBeVisited.append(currentNeighbour);
-
-                        // 6
-                        // If currentNeighbour can be passed and a path has been found
-                        // currentNeighbour is the end of the path
-                        if (currentNeighbour.isTrack() && currentNeighbour.getPosition().equals(end)) {
-                            foundPath = this.resolvePath(currentNeighbour);
-                            pathFound = true;
+                        if (board.areValidCoords(neighbourX, neighbourY) && !context.isVisited(currentNeighbour)) {
+                            /* 5.
+                            If currentNeighbour can be passed, then 6. Sets the parent node of currentNeighbour
+                            to cellToBeChecked, adds currentNeighbour to needToBeVisited and check if currentNeighbour
+                            is the end of the path. If yes, a path has been found.
+                             */
+                            context.visit(currentNeighbour, cellToBeChecked, context.getDistance(cellToBeChecked) + 1);
+                            context.enqueue(currentNeighbour);
+
+                            // 6
+                            // If currentNeighbour can be passed and a path has been found
+                            // currentNeighbour is the end of the path
+                            if (currentNeighbour == endIndex && board.isTrack(neighbourX, neighbourY)) {
+                                foundPath = this.resolvePath(context, currentNeighbour, board);
+                                pathFound = true;
+                            }
                         }
                     }
                 }
             }
-        }
 
-        // In case of path to one element itself
-        PathList list = this.checkPositions(start, end, board);
-        foundPath.append(list.isEmpty() ? null : list.getFirstElement());
-
-        return foundPath;
-    }
-
-    public PathList resolvePath(Cell finalNode) {
-        PathList result = new PathList();
-        Cell currentNode = finalNode;
-
-        while (currentNode != null) {
-            result.insertAtFront(currentNode);
-            currentNode = currentNode.getParentCell();
-        }
-
-        return result;
-    }
-
-    /**
-     * Checks if the start and end position are equal, in case of two swamp return one
-     * path list containing one swamp cell, otherwise returns empty path list
-     *
-     * @param start the given start position
-     * @param end   the given end position
-     * @param board the given board
-     * @return PathList
-     */
-    private PathList checkPositions(Point start, Point end, Board board) {
-        PathList pathList = new PathList();
-        if (board.areValidCoords(start) && board.areValidCoords(end) && start.equals(end)
-            && board.getCellAtPosition(start).getCurrentState() == CellState.TRACK) {
-            pathList.insertAtFront(board.getCellAtPosition(start));
+            // In case of path to one element itself
+            if (startIndex == endIndex && board.isTrack(start)) {
+                foundPath = this.resolvePath(context, startIndex, board);
+            }
 
-            return pathList;
+            return foundPath;
+        } finally {
+            context.release();
         }
-
-        return pathList;
     }
 }
@@ -0,0 +1,77 @@
+package logic.pathfinding;
+
+import logic.Board;
+import logic.Point;
+import logic.list.PathList;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Class used for determining the paths on a playing field leading from one
+ * point to another by the use of the dijkstra algorithm with a binary heap.
+ * Distances and parents are kept in the int arrays of a {@link SearchContext}
+ * indexed by y * colCount + x, so no list has to be searched and no cell has
+ * to be touched while the search is running.
+ *
+ * @author ite105705
+ */
+public class HeapDijkstra extends PathFinder {
+
+    /**
+     * Costs of a step from a cell to one of its neighbours.
+     */
+    private static final int STEP_COST = 1;
+
+    @Override
+    public PathList getPathFromPosToPos(Point start, Point end, Board board) {
+        // Checks the validity of the position start and end
+        if (!board.areValidCoords(start) || !board.areValidCoords(end)) {
+            throw new InvalidParameterException("Invalid start or end position");
+        }
+
+        // We cannot move from or into cells which are not track
+        if (!board.isTrack(start) || !board.isTrack(end)) {
+            return new PathList();
+        }
+
+        int colCount = board.getColCount();
+        int startIndex = start.y() * colCount + start.x();
+        int endIndex = end.y() * colCount + end.x();
+        SearchContext context = SearchContext.acquire(colCount * board.getRowCount());
+        try {
+            context.visit(startIndex, SearchContext.NO_PARENT, 0);
+            IntMinHeap queue = context.getHeap();
+            queue.push(0, startIndex);
+
+            boolean pathFound = startIndex == endIndex;
+            while (!queue.isEmpty() && !pathFound) {
+                int distance = queue.peekKey();
+                int current = queue.pop();
+
+                // Skips outdated entries of cells which were reached on a shorter way
+                if (distance == context.getDistance(current)) {
+                    if (current == endIndex) {
+                        pathFound = true;
+                    } else {
+                        int x = current % colCount;
+                        int y = current / colCount;
+                        for (int i = 0; i < NEIGHBOUR_DX.length; i++) {
+                            int neighbourX = x + NEIGHBOUR_DX[i];
+                            int neighbourY = y + NEIGHBOUR_DY[i];
+                            int neighbour = neighbourY * colCount + neighbourX;
+                            if (board.isTrack(neighbourX, neighbourY)
+                                && distance + STEP_COST < context.getDistance(neighbour)) {
+                                context.visit(neighbour, current, distance + STEP_COST);
+                                queue.push(distance + STEP_COST, neighbour);
+                            }
+                        }
+                    }
+                }
+            }
+
+            return pathFound ? this.resolvePath(context, endIndex, board) : new PathList();
+        } finally {
+            context.release();
+        }
+    }
+}
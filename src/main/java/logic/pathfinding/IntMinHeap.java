@@ -0,0 +1,129 @@
+package logic.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of int values ordered by int keys. It is used as the
+ * priority queue of the path finders, entries are never updated, instead a
+ * value is pushed again with its smaller key and outdated entries are skipped
+ * by the caller.
+ *
+ * @author ite105705
+ */
+class IntMinHeap {
+
+    /**
+     * Initial capacity of the heap.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Keys of the entries in heap order.
+     */
+    private int[] keys;
+
+    /**
+     * Values of the entries in heap order.
+     */
+    private int[] values;
+
+    /**
+     * Number of the entries in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     */
+    IntMinHeap() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Determines if the heap is empty.
+     *
+     * @return true, if the heap is empty
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes all the entries of the heap.
+     */
+    void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Returns the key of the entry with the smallest key.
+     *
+     * @return smallest key of the heap
+     */
+    int peekKey() {
+        return this.keys[0];
+    }
+
+    /**
+     * Adds a new entry to the heap.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     */
+    void push(int key, int value) {
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.size * 2);
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+        }
+
+        // Sifts the new entry up until its parent has a smaller key
+        int index = this.size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (this.keys[parent] <= key) {
+                break;
+            }
+
+            this.keys[index] = this.keys[parent];
+            this.values[index] = this.values[parent];
+            index = parent;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+    }
+
+    /**
+     * Removes the entry with the smallest key and returns its value.
+     *
+     * @return value of the entry with the smallest key
+     */
+    int pop() {
+        int result = this.values[0];
+        int lastKey = this.keys[--this.size];
+        int lastValue = this.values[this.size];
+
+        // Sifts the last entry down from the root until both children have bigger keys
+        int index = 0;
+        int half = this.size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < this.size && this.keys[child + 1] < this.keys[child]) {
+                child++;
+            }
+            if (lastKey <= this.keys[child]) {
+                break;
+            }
+
+            this.keys[index] = this.keys[child];
+            this.values[index] = this.values[child];
+            index = child;
+        }
+
+        this.keys[index] = lastKey;
+        this.values[index] = lastValue;
+
+        return result;
+    }
+}
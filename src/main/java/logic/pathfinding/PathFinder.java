@@ -17,6 +17,18 @@ import java.security.InvalidParameterException;
  */
 public abstract class PathFinder {
 
+    /**
+     * Offsets of the x-axis values of the neighbours of a cell, in the same
+     * order as {@link Board#getNeighbours(Point)}.
+     */
+    static final int[] NEIGHBOUR_DX = {-1, 1, 0, 0, -1, 1, 1, -1};
+
+    /**
+     * Offsets of the y-axis values of the neighbours of a cell, in the same
+     * order as {@link Board#getNeighbours(Point)}.
+     */
+    static final int[] NEIGHBOUR_DY = {0, 0, -1, 1, -1, -1, 1, 1};
+
     /**
      * Returns a path from the start position to the end position on the given
      * board. Uses the flood fill algorithm (described below). Do not use the
@@ -63,10 +75,25 @@ public abstract class PathFinder {
 
     /**
      * Determines the path and returns it as a list (step 6 of the flood fill
-     * algorithm).
+     * algorithm). The parents are taken from the search context, a cell is
+     * only created for each node of the path, so the cells of the whole board
+     * are never created.
      *
-     * @param finalNode last/end node
+     * @param context   the search context with the parents of the search
+     * @param finalNode index of the last/end node (y * colCount + x)
+     * @param board     the searched board
      * @return path leading to the end node
      */
-    public abstract PathList resolvePath(Cell finalNode);
+    PathList resolvePath(SearchContext context, int finalNode, Board board) {
+        PathList result = new PathList();
+        int colCount = board.getColCount();
+        for (int currentNode = finalNode; currentNode != SearchContext.NO_PARENT;
+             currentNode = context.getParent(currentNode)) {
+            int x = currentNode % colCount;
+            int y = currentNode / colCount;
+            result.insertAtFront(new Cell(new Point(x, y), board.getState(x, y)));
+        }
+
+        return result;
+    }
 }
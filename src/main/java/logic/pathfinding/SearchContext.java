@@ -0,0 +1,221 @@
+package logic.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Scratch state of a single path search: which cells are visited, their
+ * parents and distances, the queue and the heap. The path finders keep all
+ * their state in a context instead of the cells of the board, so several
+ * searches can run on the same board at the same time.
+ * <p>
+ * Every thread reuses its own context. Instead of clearing the arrays before
+ * each search, a cell only counts as visited if it was visited in the current
+ * generation of the context. A search that is started while the context of
+ * its thread is still in use gets a new context of its own. So does a search
+ * on a board with more than {@link #MAX_POOLED_CELLS} cells, its arrays are
+ * freed with the context after the search instead of staying with the thread.
+ *
+ * @author ite105705
+ */
+final class SearchContext {
+
+    /**
+     * Distance of the cells which are not reached yet.
+     */
+    static final int UNREACHED = Integer.MAX_VALUE;
+
+    /**
+     * Parent of the start cell of a search.
+     */
+    static final int NO_PARENT = -1;
+
+    /**
+     * Number of the cells of the largest board a reusable context is used
+     * for, so a thread keeps at most about 16 MB of arrays between searches.
+     */
+    static final int MAX_POOLED_CELLS = 1 << 20;
+
+    /**
+     * The reusable context of each thread.
+     */
+    private static final ThreadLocal<SearchContext> POOL = ThreadLocal.withInitial(SearchContext::new);
+
+    /**
+     * Generation in which each cell was visited last, indexed by
+     * y * colCount + x.
+     */
+    private int[] visitedGenerations = new int[0];
+
+    /**
+     * Parent of each visited cell.
+     */
+    private int[] parents = new int[0];
+
+    /**
+     * Distance of each visited cell to the start.
+     */
+    private int[] distances = new int[0];
+
+    /**
+     * Queue of the breadth first searches, every cell is added at most once.
+     */
+    private int[] queue = new int[0];
+
+    /**
+     * Index of the next cell to take out of the queue.
+     */
+    private int queueHead;
+
+    /**
+     * Index of the next free slot of the queue.
+     */
+    private int queueTail;
+
+    /**
+     * Priority queue of the dijkstra searches.
+     */
+    private final IntMinHeap heap = new IntMinHeap();
+
+    /**
+     * Current generation, a cell is visited if its generation is equal.
+     */
+    private int generation;
+
+    /**
+     * Whether a search is using the context right now.
+     */
+    private boolean isInUse;
+
+    /**
+     * Returns a cleared context for a search on a board with the given number
+     * of cells. It has to be given back with {@link #release()}.
+     *
+     * @param cellCount number of the cells of the board
+     * @return the context
+     */
+    static SearchContext acquire(int cellCount) {
+        SearchContext context = cellCount > MAX_POOLED_CELLS ? new SearchContext() : POOL.get();
+        if (context.isInUse) {
+            context = new SearchContext();
+        }
+
+        context.prepare(cellCount);
+        context.isInUse = true;
+
+        return context;
+    }
+
+    /**
+     * Gives the context back, so the next search of the thread can reuse it
+     * if it is the context of the thread.
+     */
+    void release() {
+        this.isInUse = false;
+    }
+
+    /**
+     * Clears the context, the arrays only grow if the board has more cells
+     * than any board searched before with it.
+     *
+     * @param cellCount number of the cells of the board
+     */
+    private void prepare(int cellCount) {
+        if (this.visitedGenerations.length < cellCount) {
+            this.visitedGenerations = new int[cellCount];
+            this.parents = new int[cellCount];
+            this.distances = new int[cellCount];
+            this.queue = new int[cellCount];
+            this.generation = 0;
+        }
+
+        if (this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.visitedGenerations, 0);
+            this.generation = 0;
+        }
+
+        this.generation++;
+        this.queueHead = 0;
+        this.queueTail = 0;
+        this.heap.clear();
+    }
+
+    /**
+     * Checks whether the given cell was visited in this search.
+     *
+     * @param index index of the cell
+     * @return whether the cell was visited
+     */
+    boolean isVisited(int index) {
+        return this.visitedGenerations[index] == this.generation;
+    }
+
+    /**
+     * Marks the given cell as visited.
+     *
+     * @param index    index of the cell
+     * @param parent   index of the parent cell or {@link #NO_PARENT}
+     * @param distance distance of the cell to the start
+     */
+    void visit(int index, int parent, int distance) {
+        this.visitedGenerations[index] = this.generation;
+        this.parents[index] = parent;
+        this.distances[index] = distance;
+    }
+
+    /**
+     * Returns the parent of the given visited cell.
+     *
+     * @param index index of the cell
+     * @return index of the parent cell or {@link #NO_PARENT}
+     */
+    int getParent(int index) {
+        return this.parents[index];
+    }
+
+    /**
+     * Returns the distance of the given cell to the start.
+     *
+     * @param index index of the cell
+     * @return the distance or {@link #UNREACHED} if the cell is not visited
+     */
+    int getDistance(int index) {
+        return this.isVisited(index) ? this.distances[index] : UNREACHED;
+    }
+
+    /**
+     * Adds the given cell to the end of the queue.
+     *
+     * @param index index of the cell
+     */
+    void enqueue(int index) {
+        this.queue[this.queueTail++] = index;
+    }
+
+    /**
+     * Takes the first cell out of the queue.
+     *
+     * @return index of the cell
+     */
+    int dequeue() {
+        return this.queue[this.queueHead++];
+    }
+
+    /**
+     * Determines if the queue is empty.
+     *
+     * @return true, if the queue is empty
+     */
+    boolean isQueueEmpty() {
+        return this.queueHead == this.queueTail;
+    }
+
+    /**
+     * Returns the priority queue of the dijkstra searches, it is empty at the
+     * start of a search.
+     *
+     * @return the heap
+     */
+    IntMinHeap getHeap() {
+        return this.heap;
+    }
+}
@@ -448,4 +448,208 @@ public class BoardTest {
         assertEquals(expected, board.toString());
         assertEquals(LineDirection.RIGHT_LEFT, board.getStartAndFinishLine().getDirection());
     }
+
+    @Test
+    public void testAddAndRemoveRowsAndColumns_3x2() {
+        String cells = """
+                1 0 2
+                0 1 0""";
+        Board board = new Board(cells, LineDirection.TOP_DOWN);
+
+        board.addRowTop();
+        board.addColRight();
+        String expected = """
+                0 0 0 0
+                1 0 2 0
+                0 1 0 0""";
+        assertEquals(expected, board.toString());
+
+        board.addColLeft();
+        board.addRowBottom();
+        expected = """
+                0 0 0 0 0
+                0 1 0 2 0
+                0 0 1 0 0
+                0 0 0 0 0""";
+        assertEquals(expected, board.toString());
+
+        board.removeRowTop();
+        board.removeColLeft();
+        board.removeRowBottom();
+        board.removeColRight();
+        assertEquals(cells, board.toString());
+        assertEquals(3, board.getColCount());
+        assertEquals(2, board.getRowCount());
+    }
+
+    @Test
+    public void testGetCells_viewFollowsChanges() {
+        Board board = new Board(3, 2);
+        Cell[][] cells = board.getCells();
+
+        board.turnIntoTrack(new Point(2, 1));
+        assertTrue(cells[2][1].isTrack());
+        assertEquals(new Point(2, 1), cells[2][1].getPosition());
+        assertSame(cells[2][1], board.getCellAtPosition(new Point(2, 1)));
+
+        board.addColLeft();
+        assertTrue(board.getCells()[3][1].isTrack());
+        assertEquals(new Point(3, 1), board.getCells()[3][1].getPosition());
+    }
+
+    @Test
+    public void testGetDistanceToFinish_ring() {
+        String cells = """
+                0 0 0 0 0 0 0
+                0 1 1 2 1 1 0
+                0 1 0 0 0 1 0
+                0 1 1 1 1 1 0
+                0 0 0 0 0 0 0""";
+        Board board = new Board(cells, LineDirection.LEFT_RIGHT);
+
+        assertEquals(0, board.getDistanceToFinish(new Point(3, 1)));
+        assertEquals(1, board.getDistanceToFinish(new Point(2, 1)));
+        assertEquals(2, board.getDistanceToFinish(new Point(1, 2)));
+        // Behind the line the whole ring has to be driven
+        assertEquals(7, board.getDistanceToFinish(new Point(4, 1)));
+        assertEquals(Board.UNREACHABLE, board.getDistanceToFinish(new Point(0, 0)));
+        assertEquals(Board.UNREACHABLE, board.getDistanceToFinish(new Point(-1, 0)));
+
+        // A car on the track does not change the layout
+        board.placeCar(new Point(3, 3), 0);
+        assertEquals(7, board.getDistanceToFinish(new Point(4, 1)));
+
+        board.turnIntoGravel(new Point(3, 3));
+        assertEquals(Board.UNREACHABLE, board.getDistanceToFinish(new Point(4, 1)));
+
+        board.turnIntoTrack(new Point(3, 3));
+        board.addColLeft();
+        assertEquals(7, board.getDistanceToFinish(new Point(5, 1)));
+    }
+
+    @Test
+    public void testIsTrackClosed_followsEdits() {
+        String cells = """
+                0 0 0 0 0 0 0
+                0 1 1 2 1 1 0
+                0 1 0 0 0 1 0
+                0 1 1 1 1 1 0
+                0 0 0 0 0 0 0""";
+        Board board = new Board(cells, LineDirection.LEFT_RIGHT);
+        board.getStartAndFinishLine().setStartPoint(new Point(3, 1));
+        board.getStartAndFinishLine().setEndPoint(new Point(3, 1));
+
+        assertTrue(board.isTrackClosed());
+        assertEquals(8, board.getTrack().size());
+
+        board.turnIntoGravel(new Point(3, 3));
+        assertFalse(board.isTrackClosed());
+        assertNull(board.getTrack());
+
+        board.turnIntoTrack(new Point(3, 3));
+        assertTrue(board.isTrackClosed());
+        assertEquals(new Point(3, 1), board.getTrack().getAt(0).getPosition());
+
+        // The line has to touch gravel on both ends
+        board.turnIntoTrack(new Point(3, 2));
+        assertFalse(board.isTrackClosed());
+        board.turnIntoGravel(new Point(3, 2));
+        assertTrue(board.isTrackClosed());
+
+        // Cars are not part of the terrain
+        board.placeCar(new Point(3, 3), 0);
+        assertTrue(board.isTrackClosed());
+        assertTrue(board.isTrack(new Point(3, 3)));
+        board.removeCar(new Point(3, 3));
+
+        assertEquals(new Point(4, 1), board.getTrack().getAt(1).getPosition());
+        board.reverseLine();
+        assertTrue(board.isTrackClosed());
+        assertEquals(new Point(2, 1), board.getTrack().getAt(1).getPosition());
+    }
+
+    @Test
+    public void testSnapshot_independentOfOriginal() {
+        Board board = new TrackGenerator(5).generate(30, 30);
+        String original = board.toString();
+        Board snapshot = board.snapshot();
+        Point trackPoint = snapshot.getTrack().getAt(snapshot.getTrack().size() / 2).getPosition();
+
+        snapshot.placeCar(trackPoint, 0);
+        board.turnIntoGravel(new Point(0, 0));
+        board.turnIntoTrack(new Point(1, 0));
+
+        assertEquals(board.getStartAndFinishLine().getStartPoint(), snapshot.getStartAndFinishLine().getStartPoint());
+        assertTrue(snapshot.isCar(trackPoint));
+        assertFalse(board.isCar(trackPoint));
+        assertTrue(snapshot.isGravel(1, 0));
+        assertTrue(snapshot.hasValidPath());
+        assertEquals(original, new Board(snapshot).toString());
+    }
+
+    @Test
+    public void testSnapshot_resizeAfterSnapshot() {
+        Board board = new Board("""
+                1 0 0
+                0 1 0
+                0 0 1""", LineDirection.LEFT_RIGHT);
+        Board snapshot = board.snapshot();
+
+        board.addRowTop();
+        board.removeColLeft();
+        board.turnIntoTrack(new Point(0, 0));
+        snapshot.removeRowBottom();
+        snapshot.turnIntoTrack(new Point(2, 0));
+
+        assertEquals("""
+                1 0
+                0 0
+                1 0
+                0 1""", board.toString());
+        assertEquals("""
+                1 0 1
+                0 1 0""", snapshot.toString());
+    }
+
+    @Test
+    public void testIsSegmentClear_jumpOverGravel() {
+        Board board = new Board("""
+                1 1 0 1 1
+                1 1 1 1 1
+                1 0 1 1 1""", LineDirection.LEFT_RIGHT);
+
+        assertFalse(board.isSegmentClear(0, 0, 4, 0));
+        assertTrue(board.isSegmentClear(0, 1, 4, 1));
+        assertFalse(board.isSegmentClear(1, 0, 1, 2));
+        assertTrue(board.isSegmentClear(3, 0, 3, 2));
+        assertTrue(board.isSegmentClear(2, 2, 2, 2));
+        assertFalse(board.isSegmentClear(2, 0, 2, 0));
+        // Passing exactly through the corner of the gravel does not touch it
+        assertTrue(board.isSegmentClear(0, 1, 1, 0));
+        assertTrue(board.isSegmentClear(1, 1, 2, 2));
+        // A shallow line passes the inside of the gravel cell (2, 0)
+        assertFalse(board.isSegmentClear(0, 1, 4, 0));
+        assertFalse(board.isSegmentClear(0, 0, 1, 2));
+        assertFalse(board.isSegmentClear(0, 0, 5, 0));
+    }
+
+    @Test
+    public void testIsSegmentClear_followsEditsAcrossWords() {
+        Board board = new Board(100, 3);
+        for (int x = 0; x < 100; x++) {
+            board.turnIntoTrack(new Point(x, 1));
+        }
+
+        assertTrue(board.isSegmentClear(0, 1, 99, 1));
+        assertFalse(board.isSegmentClear(0, 0, 99, 0));
+
+        board.turnIntoGravel(new Point(70, 1));
+        assertFalse(board.isSegmentClear(0, 1, 99, 1));
+        assertTrue(board.isSegmentClear(0, 1, 69, 1));
+        assertTrue(board.isSegmentClear(71, 1, 99, 1));
+
+        board.turnIntoTrack(new Point(70, 1));
+        board.placeCar(new Point(70, 1), 0);
+        assertTrue(board.isSegmentClear(99, 1, 0, 1));
+    }
 }
@@ -118,4 +118,14 @@ public class FakeGUI implements GUIConnector {
     public void turnIntoState(Point point, CellState cellState, LineDirection lineDirection) {
         
     }
+
+    @Override
+    public void updateTrackClosedLabel(boolean isClosed) {
+
+    }
+
+    @Override
+    public void drawBoard(Board board) {
+
+    }
 }
@@ -0,0 +1,68 @@
+package logic;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class MoveGeneratorTest {
+
+    private static final String FIELD = """
+            0 0 0 0 0
+            0 1 1 1 0
+            0 1 1 1 0
+            0 1 1 1 0
+            0 0 0 0 0""";
+
+    @Test
+    public void testLegalMoves_allOnBoard() {
+        Board board = new Board(FIELD, LineDirection.LEFT_RIGHT);
+
+        assertEquals(MoveGenerator.ALL_MOVES, MoveGenerator.legalMoves(board, 2, 2, 0, 0));
+    }
+
+    @Test
+    public void testLegalMoves_borderAndCars() {
+        Board board = new Board(FIELD, LineDirection.LEFT_RIGHT);
+        board.placeCar(new Point(1, 1), 0);
+        board.placeCar(new Point(2, 1), 1);
+
+        // The car at (1, 1) moves up and left, only one move stays on the board
+        assertEquals(1 << 4, MoveGenerator.legalMoves(board, 1, 1, -2, -2));
+
+        // Its own position stays legal, the cell of the other car is not
+        int mask = MoveGenerator.legalMoves(board, 1, 1, 0, 0);
+        assertTrue(MoveGenerator.isLegal(mask, 0));
+        assertFalse(MoveGenerator.isLegal(mask, 3));
+        assertEquals(Integer.bitCount(MoveGenerator.ALL_MOVES) - 1, Integer.bitCount(mask));
+    }
+
+    @Test
+    public void testDestinations_matchPossibleDestinations() {
+        Player player = new Player(new Point(1, -1));
+        player.setPosition(new Point(4, 4));
+        Point[] destinations = player.newPossibleDestinations();
+
+        for (int move = 0; move < MoveGenerator.MOVE_COUNT; move++) {
+            int x = MoveGenerator.destinationX(4, 1, move);
+            int y = MoveGenerator.destinationY(4, -1, move);
+
+            assertEquals(destinations[move].x(), x);
+            assertEquals(destinations[move].y(), y);
+            assertEquals(move, MoveGenerator.findMove(4, 4, 1, -1, x, y));
+        }
+        assertEquals(-1, MoveGenerator.findMove(4, 4, 1, -1, 7, 4));
+    }
+
+    @Test
+    public void testToMoves() {
+        int[] buffer = new int[MoveGenerator.MOVE_COUNT];
+
+        int count = MoveGenerator.toMoves(0b100100101, buffer);
+
+        assertEquals(4, count);
+        assertArrayEquals(new int[]{0, 2, 5, 8}, Arrays.copyOf(buffer, count));
+        assertEquals(0, MoveGenerator.toMoves(0, buffer));
+    }
+}
@@ -0,0 +1,96 @@
+package logic;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MoveHistoryTest {
+
+    @Test
+    public void testIterator_rebuildsMovesCrashesAndJumps() {
+        MoveHistory history = new MoveHistory();
+        List<Point> expected = new ArrayList<>();
+        Random random = new Random(3);
+        int x = 500;
+        int y = -20;
+        int vx = 0;
+        int vy = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            int choice = random.nextInt(20);
+            if (choice == 0) {
+                // A crash keeps the position
+                history.addCrash();
+                vx = 0;
+                vy = 0;
+                continue;
+            } else if (choice == 1) {
+                x = random.nextInt(2000) - 1000;
+                y = random.nextInt(2000) - 1000;
+                vx = 0;
+                vy = 0;
+            } else {
+                vx += random.nextInt(3) - 1;
+                vy += random.nextInt(3) - 1;
+                x += vx;
+                y += vy;
+            }
+
+            Point point = new Point(x, y);
+            history.add(point);
+            expected.add(point);
+        }
+
+        List<Point> actual = new ArrayList<>();
+        for (Point point : history) {
+            actual.add(point);
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), history.size());
+        assertEquals(expected.get(0), history.getFirst());
+        assertEquals(expected.get(expected.size() - 1), history.getLast());
+    }
+
+    @Test
+    public void testEmptyHistory() {
+        MoveHistory history = new MoveHistory();
+
+        assertTrue(history.isEmpty());
+        assertNull(history.getFirst());
+        assertFalse(history.iterator().hasNext());
+    }
+
+    @Test
+    public void testFromBytes_restoresHistory() {
+        MoveHistory history = new MoveHistory();
+        history.add(new Point(3, 4));
+        history.add(new Point(4, 5));
+        history.add(new Point(6, 6));
+        history.addCrash();
+        history.add(new Point(6, 7));
+        history.add(new Point(40, 2));
+
+        MoveHistory restored = MoveHistory.fromBytes(history.toBytes());
+        restored.add(new Point(41, 2));
+        history.add(new Point(41, 2));
+
+        List<Point> expected = new ArrayList<>();
+        history.forEach(expected::add);
+        List<Point> actual = new ArrayList<>();
+        restored.forEach(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(new Point(3, 4), restored.getFirst());
+        assertEquals(new Point(41, 2), restored.getLast());
+        assertArrayEquals(history.toBytes(), restored.toBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromBytes_moveWithoutStart() {
+        MoveHistory.fromBytes(new byte[]{0, 0, 0, 1, 0, 0, 0, 0, 3});
+    }
+}
@@ -0,0 +1,111 @@
+package logic;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MoveJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRead_stopsAtTornRecord() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("race.journal");
+        try (MoveJournal journal = MoveJournal.create(path, 4)) {
+            journal.append(0, MoveLog.PLACEMENT, 3, 4);
+            journal.append(1, MoveLog.PLACEMENT, 5, 4);
+            journal.append(0, 4, 4, 5);
+            journal.append(1, MoveLog.NO_MOVE, 5, 4);
+            journal.append(0, 0, 5, 6);
+        }
+        Files.write(path, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        MoveLog log = MoveJournal.read(path);
+
+        assertEquals(5, log.size());
+        assertEquals(1, log.getPlayer(3));
+        assertEquals(MoveLog.NO_MOVE, log.getDecision(3));
+        assertEquals(5, log.getX(4));
+        assertEquals(6, log.getY(4));
+
+        try (MoveJournal journal = MoveJournal.open(path, 1)) {
+            journal.append(1, 3, 6, 4);
+        }
+        assertEquals(6, MoveJournal.read(path).size());
+    }
+
+    @Test
+    public void testReplace_keepsEntriesFromIndex() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("race.journal");
+        try (MoveJournal journal = MoveJournal.create(path, 1)) {
+            journal.append(0, MoveLog.PLACEMENT, 1, 1);
+        }
+        MoveLog log = new MoveLog();
+        log.add(0, MoveLog.PLACEMENT, 3, 4);
+        log.add(1, MoveLog.PLACEMENT, 5, 4);
+        log.add(0, 4, 4, 5);
+
+        try (MoveJournal journal = MoveJournal.replace(path, log, 1, 4)) {
+            journal.append(1, 3, 6, 4);
+        }
+        MoveLog replaced = MoveJournal.read(path);
+
+        assertEquals(3, replaced.size());
+        assertEquals(5, replaced.getX(0));
+        assertEquals(4, replaced.getDecision(1));
+        assertEquals(3, replaced.getDecision(2));
+        assertFalse(Files.exists(path.resolveSibling("race.journal.tmp")));
+    }
+
+    @Test
+    public void testRecover_journalAfterSave() throws IOException {
+        Player[] players = new Player[3];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player("AI " + i, PlayerStatus.AI, i);
+        }
+        RaceTrack game = new RaceTrack(new TrackGenerator(12).generate(60, 40), players, null);
+        game.runRace(30);
+        String saved = game.createWriter().toJson(true);
+
+        Path path = folder.getRoot().toPath().resolve("race.journal");
+        try (MoveJournal journal = MoveJournal.create(path, MoveJournal.DEFAULT_SYNC_INTERVAL)) {
+            game.setJournal(journal);
+            game.runRace(25);
+        }
+
+        RaceTrack recovered = TrackLoader.load(new StringReader(saved)).createHeadlessRace(null);
+        assertEquals(-1, recovered.recover(MoveJournal.read(path)));
+
+        assertEquals(game.getCurrentPlayerIndex(), recovered.getCurrentPlayerIndex());
+        for (int i = 0; i < players.length; i++) {
+            assertEquals(players[i].getPosition(), recovered.getPlayers()[i].getPosition());
+            assertEquals(players[i].getSpeed(), recovered.getPlayers()[i].getSpeed());
+            assertEquals(players[i].getMoves().size(), recovered.getPlayers()[i].getMoves().size());
+        }
+    }
+
+    @Test
+    public void testRecordTurn_failingJournalDoesNotStopRace() throws IOException {
+        Player[] players = {new Player("AI 0", PlayerStatus.AI, 0), new Player("AI 1", PlayerStatus.AI, 1)};
+        RaceTrack game = new RaceTrack(new TrackGenerator(3).generate(50, 30), players, null);
+        MoveJournal journal = MoveJournal.create(folder.getRoot().toPath().resolve("race.journal"), 1);
+        journal.close();
+        game.setJournal(journal);
+
+        game.runRace(20);
+
+        assertEquals(0, MoveJournal.read(folder.getRoot().toPath().resolve("race.journal")).size());
+        assertTrue(game.getMoveLog().size() > 2);
+    }
+}
@@ -0,0 +1,37 @@
+package logic;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveLogTest {
+
+    @Test
+    public void testAdd_entriesAndDigest() {
+        MoveLog log = new MoveLog();
+        MoveLog sameLog = new MoveLog();
+        long emptyDigest = log.getDigest();
+        for (int i = 0; i < 200; i++) {
+            log.add(i % 7, i % 11 - 2, -i, 3 * i);
+            sameLog.add(i % 7, i % 11 - 2, -i, 3 * i);
+        }
+
+        assertEquals(200, log.size());
+        assertEquals(3, log.getPlayer(10));
+        assertEquals(MoveLog.PLACEMENT, log.getDecision(11));
+        assertEquals(MoveLog.NO_MOVE, log.getDecision(12));
+        assertEquals(8, log.getDecision(21));
+        assertEquals(-21, log.getX(21));
+        assertEquals(63, log.getY(21));
+        assertNotEquals(emptyDigest, log.getDigest());
+        assertEquals(log.getDigest(), sameLog.getDigest());
+
+        sameLog.add(0, 0, 0, 0);
+        assertNotEquals(log.getDigest(), sameLog.getDigest());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_unknownDecision() {
+        new MoveLog().add(0, MoveGenerator.MOVE_COUNT, 0, 0);
+    }
+}
@@ -0,0 +1,75 @@
+package logic;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OccupancyIndexTest {
+
+    @Test
+    public void testPutGetRemove() {
+        OccupancyIndex index = new OccupancyIndex();
+
+        assertEquals(OccupancyIndex.NONE, index.put(3, 4, 0));
+        assertEquals(OccupancyIndex.NONE, index.put(-3, 4, 1));
+        assertEquals(0, index.put(3, 4, 2));
+
+        assertEquals(2, index.size());
+        assertEquals(2, index.get(3, 4));
+        assertEquals(1, index.get(-3, 4));
+        assertEquals(OccupancyIndex.NONE, index.get(4, 3));
+        assertFalse(index.contains(4, 3));
+
+        assertEquals(2, index.remove(3, 4));
+        assertEquals(OccupancyIndex.NONE, index.remove(3, 4));
+        assertFalse(index.contains(3, 4));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testRandomMoves_matchHashMap() {
+        OccupancyIndex index = new OccupancyIndex();
+        Map<Point, Integer> expected = new HashMap<>();
+        Random random = new Random(17);
+
+        for (int i = 0; i < 20_000; i++) {
+            int x = random.nextInt(40);
+            int y = random.nextInt(40);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(new Point(x, y));
+                assertEquals(removed == null ? OccupancyIndex.NONE : removed, index.remove(x, y));
+            } else {
+                int player = random.nextInt(300);
+                Integer previous = expected.put(new Point(x, y), player);
+                assertEquals(previous == null ? OccupancyIndex.NONE : previous, index.put(x, y, player));
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 40; y++) {
+                assertEquals(expected.getOrDefault(new Point(x, y), OccupancyIndex.NONE).intValue(), index.get(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testCopy_independent() {
+        OccupancyIndex index = new OccupancyIndex();
+        index.put(1, 1, 0);
+        OccupancyIndex copy = new OccupancyIndex(index);
+
+        copy.remove(1, 1);
+        copy.put(2, 2, 1);
+        index.clear();
+
+        assertEquals(OccupancyIndex.NONE, copy.get(1, 1));
+        assertEquals(1, copy.get(2, 2));
+        assertEquals(0, index.size());
+        assertFalse(index.contains(2, 2));
+    }
+}
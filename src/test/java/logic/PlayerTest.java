@@ -2,6 +2,9 @@ package logic;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static junit.framework.TestCase.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
 
@@ -124,4 +127,21 @@ public class PlayerTest {
         assertEquals(new Point(7, 0), player.getPosition());
         assertEquals(new Point(-1, 0), player.getSpeed());
     }
+
+    @Test
+    public void testUpdatePositionOnCrash_historyContinues() {
+        Player player = new Player("AI", PlayerStatus.AI, 0);
+        player.setPosition(new Point(2, 2));
+        player.addMove(new Point(2, 2));
+        player.move(new Point(3, 2));
+        player.move(new Point(5, 2));
+
+        player.updatePositionOnCrash();
+        player.move(new Point(5, 3));
+
+        List<Point> moves = new ArrayList<>();
+        player.getMoves().forEach(moves::add);
+        assertEquals(List.of(new Point(2, 2), new Point(3, 2), new Point(5, 2), new Point(5, 3)), moves);
+        assertEquals(new Point(0, 1), player.getSpeed());
+    }
 }
@@ -0,0 +1,59 @@
+package logic;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PointTest {
+
+    @Test
+    public void testEquals_symmetricWithPrincipalPoint() {
+        Point point = new Point(3, 4);
+        Point principalPoint = new PrincipalPoint(3, 4);
+
+        assertEquals(point, principalPoint);
+        assertEquals(principalPoint, point);
+        assertEquals(point.hashCode(), principalPoint.hashCode());
+        assertNotEquals(point, new Point(4, 3));
+        assertNotEquals(point, null);
+    }
+
+    @Test
+    public void testHashCode_mapLookups() {
+        Map<Point, String> images = new HashMap<>();
+        Set<Point> points = new HashSet<>();
+        for (int x = 0; x < 50; x++) {
+            for (int y = 0; y < 50; y++) {
+                images.put(new Point(x, y), x + "," + y);
+                points.add(new PrincipalPoint(x, y));
+            }
+        }
+
+        assertEquals(2500, images.size());
+        assertEquals(2500, points.size());
+        assertEquals("7,42", images.get(new PrincipalPoint(7, 42)));
+        assertTrue(points.contains(new Point(49, 0)));
+        assertFalse(points.contains(new Point(50, 0)));
+    }
+
+    @Test
+    public void testPack_roundTrip() {
+        int[] values = {0, 1, -1, 4000, -4000, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int x : values) {
+            for (int y : values) {
+                long packed = Point.pack(x, y);
+
+                assertEquals(x, Point.unpackX(packed));
+                assertEquals(y, Point.unpackY(packed));
+                assertEquals(new Point(x, y), Point.unpack(packed));
+                assertEquals(packed, new Point(x, y).pack());
+            }
+        }
+        assertNotEquals(Point.pack(1, 2), Point.pack(2, 1));
+    }
+}
@@ -4,7 +4,11 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class RaceTrackTest {
@@ -88,4 +92,159 @@ public class RaceTrackTest {
 
 
     }
+
+    @Test
+    public void testRunRace_headlessAIRaces() {
+        TrackGenerator generator = new TrackGenerator(11);
+        RacingLineSolver solver = new RacingLineSolver(generator.generate(60, 40));
+        for (int race = 0; race < 200; race++) {
+            Player[] players = new Player[4];
+            for (int i = 0; i < players.length; i++) {
+                players[i] = new Player("AI " + i, PlayerStatus.AI, i);
+            }
+            RaceTrack game = new RaceTrack(generator.generate(60, 40), players, solver);
+
+            int turns = game.runRace(10_000);
+
+            assertTrue("race " + race, game.isGameEnded());
+            assertTrue(turns < 10_000);
+        }
+    }
+
+    @Test
+    public void testRunRace_hundredCars() {
+        Board board = new TrackGenerator(7).generate(160, 120);
+        String terrain = board.toString();
+        Player[] players = new Player[100];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player("AI " + i, PlayerStatus.AI, i);
+        }
+        RaceTrack game = new RaceTrack(board, players, null);
+
+        game.runRace(500);
+
+        assertEquals(terrain, board.toString());
+        assertEquals(players.length, board.getCarCount());
+        for (int i = 0; i < players.length; i++) {
+            Point position = players[i].getPosition();
+            assertEquals(i, board.getCarAt(position.x(), position.y()));
+        }
+    }
+
+    @Test
+    public void testRunRace_multipleLaps() {
+        Board board = new TrackGenerator(5).generate(50, 40);
+        RacingLineSolver solver = new RacingLineSolver(board);
+        Player[] oneLapPlayer = {new Player("AI", PlayerStatus.AI, 0)};
+        RaceTrack oneLap = new RaceTrack(board.snapshot(), oneLapPlayer, solver);
+        Player[] threeLapPlayer = {new Player("AI", PlayerStatus.AI, 0)};
+        RaceTrack threeLaps = new RaceTrack(board.snapshot(), threeLapPlayer, solver);
+        threeLaps.setLapCount(3);
+
+        int oneLapTurns = oneLap.runRace(10_000);
+        int threeLapTurns = threeLaps.runRace(10_000);
+
+        assertTrue(threeLaps.isGameEnded());
+        assertEquals(1, oneLapPlayer[0].getCrossedLine());
+        assertEquals(3, threeLapPlayer[0].getCrossedLine());
+        assertTrue(threeLapTurns > 2 * oneLapTurns);
+    }
+
+    @Test
+    public void testRunRace_checkpoints() {
+        Board board = new TrackGenerator(5).generate(50, 40);
+        TrackLine line = board.getStartAndFinishLine();
+        TrackLine sameLine = new TrackLine(line.getStartPoint(), line.getEndPoint(), line.getDirection());
+        TrackLine reversedLine = new TrackLine(line.getStartPoint(), line.getEndPoint(), line.getDirection());
+        reversedLine.toggleDirection();
+
+        RaceTrack reachable = new RaceTrack(board.snapshot(), new Player[]{new Player("AI", PlayerStatus.AI, 0)}, null);
+        reachable.setCheckpoints(List.of(sameLine));
+        reachable.runRace(2_000);
+        RaceTrack unreachable = new RaceTrack(board.snapshot(), new Player[]{new Player("AI", PlayerStatus.AI, 0)}, null);
+        unreachable.setCheckpoints(List.of(reversedLine));
+        unreachable.runRace(2_000);
+
+        assertTrue(reachable.isGameEnded());
+        assertFalse(unreachable.isGameEnded());
+        assertEquals(0, unreachable.getPlayers()[0].getCrossedLine());
+    }
+
+    @Test
+    public void testSetSeed_sameSeedSameDigest() {
+        Board board = new TrackGenerator(9).generate(60, 40);
+        RacingLineSolver solver = new RacingLineSolver(board);
+        long[] digests = new long[2];
+        for (int run = 0; run < digests.length; run++) {
+            Player[] players = new Player[6];
+            for (int i = 0; i < players.length; i++) {
+                players[i] = new Player("AI " + i, PlayerStatus.AI, i);
+            }
+            RaceTrack game = new RaceTrack(board.snapshot(), players, solver);
+            game.setSeed(42);
+            game.runRace(10_000);
+            digests[run] = game.getMoveLog().getDigest();
+        }
+
+        assertEquals(digests[0], digests[1]);
+    }
+
+    @Test
+    public void testReplay_matchesAndDetectsChanges() {
+        Board board = new TrackGenerator(9).generate(60, 40);
+        Player[] players = {new Player("A", PlayerStatus.AI, 0), new Player("B", PlayerStatus.AI, 1)};
+        RaceTrack game = new RaceTrack(board.snapshot(), players, null);
+        game.setSeed(7);
+        game.runRace(10_000);
+        MoveLog log = game.getMoveLog();
+
+        RaceTrack replay = new RaceTrack(board.snapshot(),
+                new Player[]{new Player("A", PlayerStatus.AI, 0), new Player("B", PlayerStatus.AI, 1)}, null);
+        assertEquals(-1, replay.replay(log));
+        assertTrue(replay.isGameEnded());
+
+        // The same log with a different move in the middle
+        MoveLog changed = new MoveLog();
+        int changedIndex = log.size() / 2;
+        for (int i = 0; i < log.size(); i++) {
+            int decision = log.getDecision(i);
+            if (i == changedIndex) {
+                decision = decision == 0 ? 4 : 0;
+            }
+            changed.add(log.getPlayer(i), decision, log.getX(i), log.getY(i));
+        }
+        assertNotEquals(log.getDigest(), changed.getDigest());
+
+        RaceTrack changedReplay = new RaceTrack(board.snapshot(),
+                new Player[]{new Player("A", PlayerStatus.AI, 0), new Player("B", PlayerStatus.AI, 1)}, null);
+        assertEquals(changedIndex, changedReplay.replay(changed));
+    }
+
+    @Test
+    public void testStep_headlessRaceEnds() {
+        Player[] players = {new Player("AI", PlayerStatus.AI, 0)};
+        RaceTrack game = new RaceTrack(new TrackGenerator(3).generate(40, 40), players, null);
+
+        int turns = 0;
+        while (game.step()) {
+            turns++;
+        }
+
+        assertTrue(game.isGameEnded());
+        assertTrue(players[0].isWinner());
+        assertTrue(turns > 0);
+        assertFalse(game.step());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHeadlessRace_userPlayer() {
+        Player[] players = {new Player("User", PlayerStatus.USER, 0)};
+        new RaceTrack(new TrackGenerator(3).generate(40, 40), players, null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStep_openTrack() {
+        Player[] players = {new Player("AI", PlayerStatus.AI, 0)};
+        new RaceTrack(new Board(20, 20), players, null).step();
+    }
 }
@@ -0,0 +1,123 @@
+package logic;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import logic.list.PathArray;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RaceWriterTest {
+
+    @Test
+    public void testToJson_compactAndPretty() throws IOException {
+        Board board = new TrackGenerator(4).generate(70, 50);
+        RaceWriter writer = new RaceTrack(null, board, BoardUpdate.NONE).createWriter();
+
+        String compact = writer.toJson(true);
+        String pretty = writer.toJson(false);
+
+        assertFalse(compact.contains(" ") || compact.contains("\n"));
+        assertEquals(JsonParser.parseString(pretty), JsonParser.parseString(compact));
+        assertEquals(board.toString(), TrackLoader.load(new StringReader(compact)).getBoard().toString());
+        JsonObject json = JsonParser.parseString(compact).getAsJsonObject();
+        assertEquals(4, json.getAsJsonArray("player").size());
+        assertEquals(0, json.get("currentPlayer").getAsInt());
+    }
+
+    @Test
+    public void testToJson_snapshotOfTheRace() throws IOException {
+        Board board = new TrackGenerator(4).generate(70, 50);
+        String before = board.toString();
+        RaceWriter writer = new RaceTrack(null, board, BoardUpdate.NONE).createWriter();
+
+        for (int x = 0; x < board.getColCount(); x++) {
+            board.turnIntoGravel(new Point(x, 25));
+        }
+
+        Board written = TrackLoader.load(new StringReader(writer.toJson(true))).getBoard();
+        assertEquals(before, written.toString());
+    }
+
+    @Test
+    public void testToJson_resumedRaceGoesOn() throws IOException {
+        TrackGenerator generator = new TrackGenerator(8);
+        Player[] players = new Player[3];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player("AI " + i, PlayerStatus.AI, i);
+        }
+        RaceTrack game = new RaceTrack(generator.generate(60, 40), players, null);
+        game.setLapCount(2);
+        game.runRace(40);
+
+        LoadedRace loaded = TrackLoader.load(new StringReader(game.createWriter().toJson(true)));
+        RaceTrack resumed = loaded.createHeadlessRace(null);
+
+        assertEquals(2, resumed.getLapCount());
+        assertEquals(game.getCurrentPlayerIndex(), resumed.getCurrentPlayerIndex());
+        for (int i = 0; i < players.length; i++) {
+            Player player = resumed.getPlayers()[i];
+            assertEquals(players[i].getPosition(), player.getPosition());
+            assertEquals(players[i].getLastPosition(), player.getLastPosition());
+            assertEquals(players[i].getSpeed(), player.getSpeed());
+            assertEquals(players[i].getMovementDirection(), player.getMovementDirection());
+            assertEquals(players[i].getLineBalance(), player.getLineBalance());
+            assertEquals(players[i].getMoves().size(), player.getMoves().size());
+            assertEquals(i, resumed.getBoard().getCarAt(player.getPosition().x(), player.getPosition().y()));
+        }
+
+        game.runRace(10_000);
+        resumed.runRace(10_000);
+        assertTrue(resumed.isGameEnded());
+        for (int i = 0; i < players.length; i++) {
+            List<Point> expected = new ArrayList<>();
+            players[i].getMoves().forEach(expected::add);
+            List<Point> actual = new ArrayList<>();
+            resumed.getPlayers()[i].getMoves().forEach(actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testToJson_savedDuringPlacement() throws IOException {
+        Player[] players = {new Player("AI", PlayerStatus.AI, 0), new Player("User 1", PlayerStatus.USER, 1),
+                            new Player("User 2", PlayerStatus.USER, 2)};
+        RaceTrack game = new RaceTrack(new FakeGUI(), new TrackGenerator(5).generate(60, 40), players);
+        game.startGame();
+
+        String saved = game.createWriter().toJson(true);
+        JsonObject user = JsonParser.parseString(saved).getAsJsonObject().getAsJsonArray("player").get(1)
+                                    .getAsJsonObject();
+        assertFalse(user.has("current") || user.has("last"));
+
+        LoadedRace loaded = TrackLoader.load(new StringReader(saved));
+        RaceTrack resumed = loaded.createRaceTrack(new FakeGUI());
+        resumed.resumeGame();
+
+        assertEquals(players[0].getPosition(), resumed.getPlayers()[0].getPosition());
+        assertNull(resumed.getPlayers()[1].getPosition());
+        assertEquals(1, resumed.getCurrentPlayerIndex());
+        assertFalse(resumed.isPlacementEnded());
+
+        Point free = null;
+        PathArray track = resumed.getBoard().getTrack();
+        for (int i = 0; i < track.size() && free == null; i++) {
+            Cell cell = track.getAt(i);
+            if (cell.isTrack() && !resumed.getBoard().isCar(cell.getPosition())) {
+                free = cell.getPosition();
+            }
+        }
+        resumed.placePlayerOnBoard(free);
+
+        assertEquals(free, resumed.getPlayers()[1].getPosition());
+        assertEquals(2, resumed.getCurrentPlayerIndex());
+    }
+}
@@ -0,0 +1,72 @@
+package logic;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RacingLineSolverTest {
+
+    private static final String RING = """
+            0 0 0 0 0 0 0 0 0 0 0 0
+            0 1 1 1 1 2 1 1 1 1 1 0
+            0 1 1 1 1 2 1 1 1 1 1 0
+            0 1 1 0 0 0 0 0 0 1 1 0
+            0 1 1 0 0 0 0 0 0 1 1 0
+            0 1 1 1 1 1 1 1 1 1 1 0
+            0 1 1 1 1 1 1 1 1 1 1 0
+            0 0 0 0 0 0 0 0 0 0 0 0""";
+
+    private static Board createRing() {
+        Board board = new Board(RING, LineDirection.LEFT_RIGHT);
+        board.getStartAndFinishLine().setStartPoint(new Point(5, 1));
+        board.getStartAndFinishLine().setEndPoint(new Point(5, 2));
+
+        return board;
+    }
+
+    @Test
+    public void testGetTurnsToFinish_beforeTheLine() {
+        RacingLineSolver solver = new RacingLineSolver(createRing());
+
+        assertEquals(1, solver.getTurnsToFinish(4, 1, 1, 0));
+        assertEquals(1, solver.getTurnsToFinish(5, 1, 0, 0));
+        assertEquals(2, solver.getTurnsToFinish(4, 1, 0, 0));
+    }
+
+    @Test
+    public void testGetTurnsToFinish_behindTheLine() {
+        RacingLineSolver solver = new RacingLineSolver(createRing());
+
+        // Going back over the line is not allowed, so the whole lap has to be driven
+        assertTrue(solver.getTurnsToFinish(6, 1, 0, 0) > 5);
+        assertTrue(solver.getTurnsToFinish(6, 1, 0, 0) > solver.getTurnsToFinish(9, 5, 0, 0));
+        assertEquals(RacingLineSolver.UNREACHABLE, solver.getTurnsToFinish(0, 0, 0, 0));
+        assertEquals(RacingLineSolver.UNREACHABLE, solver.getTurnsToFinish(6, 1, 9, 0));
+    }
+
+    @Test
+    public void testFindBestMove_drivesTheLapWithoutCrash() {
+        Board board = createRing();
+        RacingLineSolver solver = new RacingLineSolver(board);
+        Player player = new Player("AI", PlayerStatus.AI, 0);
+        player.setPosition(new Point(6, 1));
+        player.setLastPosition(new Point(6, 1));
+        int expectedTurns = solver.getTurnsToFinish(6, 1, 0, 0);
+
+        int turns = 0;
+        boolean crossed = false;
+        while (!crossed && turns < 100) {
+            Point from = player.getPosition();
+            Point move = solver.findBestMove(from, player.getSpeed(), player.newPossibleDestinations());
+            assertNotNull(move);
+            assertFalse(board.isGravel(move));
+
+            player.move(move);
+            crossed = board.getStartAndFinishLine().crossing(from.x(), from.y(), move.x(), move.y()) > 0;
+            turns++;
+        }
+
+        assertTrue(crossed);
+        assertEquals(expectedTurns, turns);
+    }
+}
@@ -0,0 +1,68 @@
+package logic;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class TournamentRunnerTest {
+
+    private static final List<String[]> LINE_UPS = List.of(
+            new String[]{"A", "B"},
+            new String[]{"C", "D", "A", "B"}
+    );
+
+    private static List<Board> createTracks() {
+        return List.of(
+                new TrackGenerator(1).generate(50, 40),
+                new TrackGenerator(2).generate(40, 40)
+        );
+    }
+
+    @Test
+    public void testRun_countsAllRaces() {
+        TournamentRunner runner = new TournamentRunner(createTracks(), LINE_UPS, 20);
+
+        TournamentResult result = runner.run();
+
+        assertEquals(80, runner.getRaceCount());
+        assertEquals(80, result.getRaceCount());
+        assertEquals(80, result.getFinishedRaceCount());
+        assertEquals(80, result.getRaces("A"));
+        assertEquals(40, result.getRaces("C"));
+        assertEquals(0, result.getRaces("E"));
+        assertTrue(result.getWins("A") + result.getWins("B") >= 40);
+        assertTrue(result.getMoves("A") > 0);
+    }
+
+    @Test
+    public void testRun_parallelEqualsSequential() {
+        TournamentRunner runner = new TournamentRunner(createTracks(), LINE_UPS, 10);
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+
+        TournamentResult sequential = runner.run(sequentialPool);
+        TournamentResult parallel = runner.run(parallelPool);
+        sequentialPool.shutdown();
+        parallelPool.shutdown();
+
+        assertEquals(sequential.getTurnCount(), parallel.getTurnCount());
+        for (String name : sequential.getPlayerNames()) {
+            assertEquals(sequential.getWins(name), parallel.getWins(name));
+            assertEquals(sequential.getMoves(name), parallel.getMoves(name));
+            assertEquals(sequential.getCrashes(name), parallel.getCrashes(name));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTournamentRunner_openTrack() {
+        new TournamentRunner(List.of(new Board(20, 20)), LINE_UPS, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTournamentRunner_noPlayers() {
+        new TournamentRunner(createTracks(), List.<String[]>of(new String[0]), 1);
+    }
+}
@@ -0,0 +1,83 @@
+package logic;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TrackFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndMap_generatedTrack() throws IOException {
+        Board board = new TrackGenerator(9).generate(600, 400);
+        Path path = folder.newFile("track" + TrackFile.EXTENSION).toPath();
+
+        TrackFile.write(board, path);
+        MappedTrack track = TrackFile.map(path);
+
+        assertTrue(Files.size(path) < 600 * 400 / 10);
+        assertEquals(600, track.getColCount());
+        assertEquals(400, track.getRowCount());
+        for (int y = 0; y < 400; y += 7) {
+            for (int x = 0; x < 600; x += 3) {
+                assertEquals(board.getState(x, y), track.getState(x, y));
+            }
+        }
+        Board loaded = track.toBoard();
+        assertEquals(board.toString(), loaded.toString());
+        assertEquals(board.getStartAndFinishLine().getStartPoint(), loaded.getStartAndFinishLine().getStartPoint());
+        assertEquals(board.getStartAndFinishLine().getEndPoint(), loaded.getStartAndFinishLine().getEndPoint());
+        assertEquals(board.getStartAndFinishLine().getDirection(), loaded.getStartAndFinishLine().getDirection());
+        assertTrue(loaded.hasValidPath());
+    }
+
+    @Test
+    public void testWriteAndRead_dataLargerThanBuffer() throws IOException {
+        // Every cell is a run of its own, so the data needs several writes of the buffer
+        Board board = new Board(400, 200);
+        for (int y = 0; y < 200; y++) {
+            for (int x = (y % 2); x < 400; x += 2) {
+                board.turnIntoTrack(new Point(x, y));
+            }
+        }
+        Path path = folder.newFile("checkered" + TrackFile.EXTENSION).toPath();
+
+        TrackFile.write(board, path);
+
+        assertTrue(Files.size(path) > 400 * 200 * 2);
+        assertEquals(board.toString(), TrackFile.read(path).toString());
+    }
+
+    @Test
+    public void testLoad_trackFileWithoutPlayers() throws IOException {
+        Board board = new Board("""
+                0 1 1
+                0 2 1
+                0 1 1""", LineDirection.LEFT_RIGHT);
+        Path path = folder.newFile("small" + TrackFile.EXTENSION).toPath();
+        TrackFile.write(board, path);
+
+        LoadedRace race = TrackLoader.load(path);
+
+        assertEquals(board.toString(), race.getBoard().toString());
+        assertEquals(LineDirection.LEFT_RIGHT, race.getBoard().getStartAndFinishLine().getDirection());
+        assertEquals(0, race.getPlayers().length);
+    }
+
+    @Test(expected = IOException.class)
+    public void testMap_noTrackFile() throws IOException {
+        Path path = folder.newFile("other" + TrackFile.EXTENSION).toPath();
+        Files.writeString(path, "{\"track\": [[0, 1]], \"direction\": 1, \"padding\": 0}");
+
+        TrackFile.map(path);
+    }
+}
@@ -0,0 +1,60 @@
+package logic;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TrackGeneratorTest {
+
+    @Test
+    public void testGenerate_closedTracks() {
+        for (long seed = 0; seed < 50; seed++) {
+            Board board = new TrackGenerator(seed).generate(80, 60);
+
+            assertTrue("seed " + seed, board.hasValidPath());
+            assertEquals(LineDirection.TOP_DOWN, board.getStartAndFinishLine().getDirection());
+        }
+    }
+
+    @Test
+    public void testGenerate_sameSeedSameTrack() {
+        String first = new TrackGenerator(42).generate(120, 90).toString();
+        String second = new TrackGenerator(42).generate(120, 90).toString();
+        String other = new TrackGenerator(43).generate(120, 90).toString();
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    public void testGenerate_millionCells() {
+        Board board = new TrackGenerator(7).generate(1500, 1000);
+
+        assertEquals(1500, board.getColCount());
+        assertEquals(1000, board.getRowCount());
+        assertTrue(board.hasValidPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGenerate_tooSmall() {
+        new TrackGenerator(1).generate(10, 40);
+    }
+
+    @Test
+    public void testGenerateJson_rowsOfCells() {
+        Board board = new TrackGenerator(3).generate(40, 25);
+        JsonObject json = JsonParser.parseString(new TrackGenerator(3).generateJson(40, 25)).getAsJsonObject();
+
+        assertEquals(25, json.getAsJsonArray("track").size());
+        assertEquals(40, json.getAsJsonArray("track").get(0).getAsJsonArray().size());
+        assertEquals(2, json.get("direction").getAsInt());
+        for (int y = 0; y < 25; y++) {
+            for (int x = 0; x < 40; x++) {
+                assertEquals(board.getState(x, y).ordinal(),
+                        json.getAsJsonArray("track").get(y).getAsJsonArray().get(x).getAsInt());
+            }
+        }
+    }
+}
@@ -194,4 +194,19 @@ public class TrackLineTest {
 
         assertFalse(line.isOnLine(new Point(9, 6)));
     }
+
+    @Test
+    public void testCrossing() {
+        TrackLine line = new TrackLine(new Point(5, 1), new Point(5, 2), LineDirection.LEFT_RIGHT);
+
+        assertEquals(1, line.crossing(4, 1, 6, 2));
+        assertEquals(-1, line.crossing(6, 1, 5, 1));
+        assertEquals(0, line.crossing(4, 1, 5, 1));
+        assertEquals(0, line.crossing(4, 5, 6, 5));
+
+        line = new TrackLine(new Point(1, 3), new Point(2, 3), LineDirection.DOWN_TOP);
+
+        assertEquals(1, line.crossing(2, 3, 2, 2));
+        assertEquals(-1, line.crossing(1, 1, 1, 4));
+    }
 }
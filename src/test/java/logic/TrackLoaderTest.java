@@ -0,0 +1,67 @@
+package logic;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TrackLoaderTest {
+
+    @Test
+    public void testLoad_generatedTrack() throws IOException {
+        TrackGenerator generator = new TrackGenerator(5);
+        Board board = generator.generate(90, 60);
+
+        LoadedRace race = TrackLoader.load(new StringReader(generator.generateJson(90, 60)));
+
+        assertEquals(board.toString(), race.getBoard().toString());
+        assertEquals(board.getStartAndFinishLine().getStartPoint(), race.getBoard().getStartAndFinishLine().getStartPoint());
+        assertEquals(board.getStartAndFinishLine().getEndPoint(), race.getBoard().getStartAndFinishLine().getEndPoint());
+        assertEquals(LineDirection.TOP_DOWN, race.getBoard().getStartAndFinishLine().getDirection());
+        assertTrue(race.getBoard().getStartAndFinishLine().isDrawn());
+        assertEquals(0, race.getPlayers().length);
+    }
+
+    @Test
+    public void testLoad_activePlayers() throws IOException {
+        String json = """
+                {
+                  "track": [[0, 1, 1], [0, 2, 3], [0, 1, 1]],
+                  "direction": 1,
+                  "comment": {"ignored": [1, 2]},
+                  "player": [
+                    {"active": false, "name": "", "ai": false, "current": [0, 0], "last": [0, 0], "lap": 0},
+                    {"active": true, "name": "A", "ai": true, "current": [2, 1], "last": [2, 0], "lap": 1}
+                  ],
+                  "currentPlayer": 0
+                }""";
+
+        LoadedRace race = TrackLoader.load(new StringReader(json));
+
+        assertEquals("""
+                0 1 1
+                0 2 1
+                0 1 1""", race.getBoard().toString());
+        assertEquals(1, race.getPlayers().length);
+        Player player = race.getPlayers()[0];
+        assertEquals("A", player.getName());
+        assertTrue(player.isAI());
+        assertEquals(new Point(2, 1), player.getPosition());
+        assertEquals(new Point(2, 0), player.getLastPosition());
+        assertEquals(1, player.getCrossedLine());
+        assertEquals(0, race.getBoard().getCarAt(2, 1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLoad_unknownState() throws IOException {
+        TrackLoader.load(new StringReader("{\"track\": [[0, 4]], \"direction\": 1}"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLoad_differentRowLengths() throws IOException {
+        TrackLoader.load(new StringReader("{\"track\": [[0, 1], [0]], \"direction\": 1}"));
+    }
+}
@@ -0,0 +1,73 @@
+package logic.list;
+
+import logic.Cell;
+import logic.Point;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PathArrayTest {
+
+    private static Cell cell(int x, int y) {
+        return new Cell(new Point(x, y));
+    }
+
+    @Test
+    public void testEmpty() {
+        PathArray path = new PathArray();
+
+        assertTrue(path.isEmpty());
+        assertEquals(0, path.size());
+        assertNull(path.getAt(0));
+        assertNull(path.getFirstElement());
+        assertEquals("EMPTY", path.toString());
+    }
+
+    @Test
+    public void testAppendAndInsertAtFront_grow() {
+        PathArray path = new PathArray();
+        for (int i = 0; i < 100; i++) {
+            path.append(cell(i, 0));
+            path.insertAtFront(cell(-i - 1, 0));
+        }
+
+        assertEquals(200, path.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(new Point(i - 100, 0), path.getAt(i).getPosition());
+        }
+        assertNull(path.getAt(200));
+        assertNull(path.getAt(-1));
+    }
+
+    @Test
+    public void testConversionFromAndToPathList() {
+        Cell first = cell(0, 0);
+        Cell second = cell(1, 0);
+        Cell third = cell(1, 1);
+        PathList pathList = new PathList(third, second, first);
+
+        PathArray path = PathArray.of(pathList);
+
+        assertEquals(3, path.size());
+        assertEquals(pathList.toString(), path.toString());
+        assertArrayEquals(pathList.toPositionArray(), path.toPositionArray());
+        assertTrue(path.contains(second));
+        assertFalse(path.contains(cell(5, 5)));
+        assertEquals(pathList.toString(), path.toPathList().toString());
+    }
+
+    @Test
+    public void testGetAt_longPath() {
+        PathArray path = new PathArray();
+        for (int i = 0; i < 100000; i++) {
+            path.append(cell(i, 0));
+        }
+
+        assertEquals(100000, path.size());
+        assertEquals(new Point(99999, 0), path.getAt(99999).getPosition());
+    }
+}
@@ -0,0 +1,120 @@
+package logic.pathfinding;
+
+import logic.Board;
+import logic.LineDirection;
+import logic.Point;
+import logic.list.PathList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HeapDijkstraTest {
+
+    private final static PathFinder pathfinder = new HeapDijkstra();
+
+    @Test
+    public void testGetPathFromPosToPos_10x10_tour() {
+        String cells = """
+                0 0 0 0 0 0 0 0 0 0
+                0 0 0 0 0 0 0 0 0 0
+                0 0 0 0 0 0 0 0 0 0
+                0 0 0 0 0 0 0 0 0 0
+                0 0 0 0 0 0 0 0 0 0
+                0 0 0 0 0 1 1 1 1 1
+                0 0 0 0 0 1 0 0 0 1
+                0 0 0 0 0 1 0 0 0 2
+                0 0 0 0 0 1 0 0 0 1
+                0 0 0 0 0 1 1 1 1 1""";
+        Board board = new Board(cells, LineDirection.TOP_DOWN);
+        PathList result = pathfinder.getPathFromPosToPos(new Point(9, 6), new Point(9, 8), board);
+
+        assertEquals(11, result.cellAmountInPath());
+        assertEquals(new Point(9, 6), result.getFirstElement().getPosition());
+        assertEquals(new Point(9, 8), result.getAt(10).getPosition());
+    }
+
+    @Test
+    public void testGetPathFromPosToPos_sameLengthAsDijkstra() {
+        String cells = """
+                1 1 1 1 1 1
+                1 0 0 0 0 1
+                1 1 1 0 1 1
+                0 0 1 0 1 0
+                1 1 1 1 1 1""";
+        Board board = new Board(cells, LineDirection.TOP_DOWN);
+        PathList expected = new Dijkstra().getPathFromPosToPos(new Point(0, 0), new Point(0, 4), board);
+        PathList result = pathfinder.getPathFromPosToPos(new Point(0, 0), new Point(0, 4), board);
+
+        assertEquals(expected.cellAmountInPath(), result.cellAmountInPath());
+    }
+
+    @Test
+    public void testGetPathFromPosToPos_noPath() {
+        String cells = """
+                1 1 0 1
+                1 1 0 1
+                1 1 0 1""";
+        Board board = new Board(cells, LineDirection.TOP_DOWN);
+
+        assertTrue(pathfinder.getPathFromPosToPos(new Point(0, 0), new Point(3, 2), board).isEmpty());
+        assertTrue(pathfinder.getPathFromPosToPos(new Point(0, 0), new Point(2, 2), board).isEmpty());
+    }
+
+    @Test
+    public void testGetPathFromPosToPos_sameCell() {
+        Board board = new Board("0 1 0", LineDirection.TOP_DOWN);
+
+        assertEquals(1, pathfinder.getPathFromPosToPos(new Point(1, 0), new Point(1, 0), board).cellAmountInPath());
+    }
+
+    @Test
+    public void testGetPathFromPosToPos_largeOpenBoard() {
+        Board board = new Board(600, 600);
+        for (int x = 0; x < 600; x++) {
+            for (int y = 0; y < 600; y++) {
+                board.turnIntoTrack(new Point(x, y));
+            }
+        }
+
+        PathList result = pathfinder.getPathFromPosToPos(new Point(0, 0), new Point(599, 300), board);
+
+        assertEquals(600, result.cellAmountInPath());
+    }
+
+    @Test
+    public void testGetPathFromPosToPos_concurrentSearchesOnOneBoard() throws Exception {
+        Board board = new Board(60, 60);
+        for (int x = 0; x < 60; x++) {
+            for (int y = 0; y < 60; y++) {
+                if (x % 4 != 2 || y == (x % 8 == 2 ? 0 : 59)) {
+                    board.turnIntoTrack(new Point(x, y));
+                }
+            }
+        }
+        PathFinder[] finders = {new HeapDijkstra(), new Dijkstra(), new FloodFill()};
+        int expected = pathfinder.getPathFromPosToPos(new Point(0, 30), new Point(59, 30), board).cellAmountInPath();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                PathFinder finder = finders[i % finders.length];
+                results.add(executor.submit(() -> finder.getPathFromPosToPos(
+                        new Point(0, 30), new Point(59, 30), board).cellAmountInPath()));
+            }
+
+            for (Future<Integer> result : results) {
+                assertEquals(expected, (int) result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package logic.pathfinding;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class SearchContextTest {
+
+    @Test
+    public void testAcquire_smallBoard_reusesContextOfThread() {
+        SearchContext first = SearchContext.acquire(100);
+        first.release();
+        SearchContext second = SearchContext.acquire(100);
+        second.release();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testAcquire_largeBoard_doesNotKeepContext() {
+        SearchContext pooled = SearchContext.acquire(100);
+        pooled.release();
+        SearchContext large = SearchContext.acquire(SearchContext.MAX_POOLED_CELLS + 1);
+        large.release();
+        SearchContext next = SearchContext.acquire(100);
+        next.release();
+
+        assertNotSame(pooled, large);
+        assertSame(pooled, next);
+    }
+}